@@ -21,6 +21,11 @@ public class AuditorAwareImpl implements AuditorAware<String> {
             return Optional.empty();
         }
 
+        // Stateless mode -> the id comes from the token claims
+        if (authentication.getPrincipal() instanceof AuthPrincipal principal) {
+            return Optional.of(principal.id().toString());
+        }
+
         // If the principal is your User entity
         if (authentication.getPrincipal() instanceof User) {
             User user = (User) authentication.getPrincipal();
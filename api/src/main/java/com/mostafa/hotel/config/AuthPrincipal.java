@@ -0,0 +1,53 @@
+package com.mostafa.hotel.config;
+
+import com.mostafa.hotel.enums.UserRole;
+import com.mostafa.hotel.model.User;
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+
+/*
+ * Principal of stateless mode (security.auth.stateless=true) 🪪
+ * Everything comes from the signed token claims -> no User entity, no users query per request.
+ * tokenVersion is users.token_version at login; TokenVersions rejects tokens issued before a revoke.
+ */
+public record AuthPrincipal(
+        UUID id,
+        String email,
+        UserRole role,
+        int tokenVersion
+) {
+    public static final String USER_ID = "userId";
+    public static final String ROLE = "role";
+    public static final String TOKEN_VERSION = "ver";
+
+
+    // Claims put into every login token (the email is the subject)
+    public static Map<String, Object> claimsOf(User user) {
+        return Map.of(
+                USER_ID, user.getId(),
+                ROLE, user.getRole().name(),
+                TOKEN_VERSION, user.getTokenVersion());
+    }
+
+    // null -> token issued without these claims (older login): authenticate it the stateful way
+    public static AuthPrincipal fromClaims(Claims claims) {
+        String userId = claims.get(USER_ID, String.class);
+        String role = claims.get(ROLE, String.class);
+        Integer tokenVersion = claims.get(TOKEN_VERSION, Integer.class);
+        if (userId == null || role == null || tokenVersion == null || claims.getSubject() == null) {
+            return null;
+        }
+
+        return new AuthPrincipal(UUID.fromString(userId), claims.getSubject(), UserRole.valueOf(role), tokenVersion);
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+}
@@ -1,11 +1,15 @@
 package com.mostafa.hotel.config;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import com.mostafa.hotel.service.TokenVersions;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -14,20 +18,27 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
 
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthFilter extends OncePerRequestFilter {
     private final JwtHelper jwtHelper;
+    private final VerifiedTokenCache verifiedTokenCache;
     private final UserDetailsService userDetailsService;
+    private final TokenVersions tokenVersions;
+
+    //    Stateless mode -> principal built from the token claims (AuthPrincipal), users table only on revocation
+    @Value("${security.auth.stateless:false}")
+    private boolean statelessAuth;
 
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         String authHeader = request.getHeader("Authorization");
         String token = null;
-        String username = null;
+        Claims claims;
 
         // Extract token from Authorization header
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
@@ -41,29 +52,35 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         try {
-            // Extract username from token
-            username = jwtHelper.extractUsername(token);
+            // Parse and verify the token once (repeat tokens: not at all) -> username and expiry come from the same claims
+            claims = verifiedTokenCache.verify(token, jwtHelper::parseClaims);
         } catch (Exception e) {
             System.err.println("Error extracting username from token: " + e.getMessage());
             // Continue without setting authentication
             filterChain.doFilter(request, response);
             return;
         }
+        String username = claims.getSubject();
 
         // If username is valid and no authentication is set
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
+                AuthPrincipal principal = statelessAuth ? AuthPrincipal.fromClaims(claims) : null;
+                if (principal != null) {
+                    // Signature and expiry were checked on parse -> only the revocation version is left
+                    if (tokenVersions.isCurrent(principal.id(), principal.tokenVersion())) {
+                        authenticate(request, principal, principal.authorities());
+                    }
+                    filterChain.doFilter(request, response);
+                    return;
+                }
+
+                // Cached principal (CustomUserDetailsService) -> no users query on most requests
                 UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                Boolean isTokenValid = jwtHelper.isTokenValid(token, userDetails);
+                boolean isTokenValid = jwtHelper.isTokenValid(claims, userDetails);
 
                 if (isTokenValid) {
-                    var authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                    authenticate(request, userDetails, userDetails.getAuthorities());
                 }
             } catch (Exception e) {
                 System.err.println("Error during authentication: " + e.getMessage());
@@ -74,4 +91,13 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     }
 
 
+    // ==================== PRIVATE HELPER METHODS ====================
+    private void authenticate(HttpServletRequest request, Object principal,
+                              Collection<? extends GrantedAuthority> authorities) {
+        var authToken = new UsernamePasswordAuthenticationToken(principal, null, authorities);
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
+
+
 }
\ No newline at end of file
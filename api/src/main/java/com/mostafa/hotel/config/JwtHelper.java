@@ -1,9 +1,12 @@
 package com.mostafa.hotel.config;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.DecodingException;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -12,6 +15,7 @@ import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -21,9 +25,22 @@ import java.util.function.Function;
 
 @Component
 public class JwtHelper {
+    public static final Duration TOKEN_LIFETIME = Duration.ofDays(14);
+
     @Value("${jwt.secret}")
     private String JWT_SECRET;
 
+    // Built once from JWT_SECRET -> both are immutable and thread-safe, shared by every request
+    private SecretKey signInKey;
+    private JwtParser parser;
+
+
+    @PostConstruct
+    void init() {
+        signInKey = getSignInKey();
+        parser = Jwts.parser().verifyWith(signInKey).build();
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -38,6 +55,14 @@ public class JwtHelper {
         return usernameMatch && !tokenIsExpired;
     }
 
+    // Already-verified claims (parseClaims) -> no second parse / HMAC check
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        boolean usernameMatch = Objects.equals(claims.getSubject(), userDetails.getUsername());
+        boolean tokenIsExpired = claims.getExpiration().before(new Date(System.currentTimeMillis()));
+
+        return usernameMatch && !tokenIsExpired;
+    }
+
     public String generateToken(UserDetails userDetails) {
         return this.generateToken(new HashMap<>(), userDetails);
     }
@@ -48,8 +73,8 @@ public class JwtHelper {
                 .claims(extraClaims)
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 24 * 14))
-                .signWith(getSignInKey())
+                .expiration(new Date(System.currentTimeMillis() + TOKEN_LIFETIME.toMillis()))
+                .signWith(signInKey)
                 .compact();
     }
 
@@ -58,11 +83,13 @@ public class JwtHelper {
         return claimsResolver.apply(claims);
     }
 
+    // Verifies the signature (and expiry) once and returns every claim -> throws on a bad token
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith(getSignInKey())
-                .build()
+        return parser
                 .parseSignedClaims(token)
                 .getPayload();
     }
@@ -76,7 +103,7 @@ public class JwtHelper {
             if (keyBytes.length >= 32) {
                 return Keys.hmacShaKeyFor(keyBytes);
             }
-        } catch (IllegalArgumentException e) {
+        } catch (IllegalArgumentException | DecodingException e) {
             // If Base64 decoding fails, treat as raw string
             System.out.println("JWT_SECRET is not valid Base64, treating as raw string");
         }
@@ -1,8 +1,10 @@
 package com.mostafa.hotel.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
@@ -16,11 +18,15 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 
 @Configuration
@@ -36,7 +42,30 @@ public class SecurityConfig {
         return new BCryptPasswordEncoder();
     }
 
+    /*
+     * 🛍️ Anonymous catalog reads -> own chain without JwtAuthFilter
+     * No token parsing, no user lookup and no SecurityContext for browsing traffic, even when the client
+     * sends its Authorization header along. Nothing behind these endpoints reads the current user.
+     * Occupancy and every booking/payment endpoint stay on the main chain.
+     */
     @Bean
+    @Order(1)
+    public SecurityFilterChain catalogFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher(catalogReads())
+                .cors(c -> c.configurationSource(corsConfigurationSource()))
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .securityContext(AbstractHttpConfigurer::disable)
+                .requestCache(AbstractHttpConfigurer::disable)
+                .anonymous(AbstractHttpConfigurer::disable)
+                .authorizeHttpRequests(auth -> auth.anyRequest().permitAll());
+
+        return http.build();
+    }
+
+    @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .cors(c -> {
@@ -58,6 +87,8 @@ public class SecurityConfig {
                                     "/swagger-resources/**",
                                     "/webjars/**")
                             .permitAll()
+                            // Actuator (metrics / health)
+                            .requestMatchers("/actuator/**").hasRole("ADMIN")
                             // logout/me
                             .requestMatchers(HttpMethod.GET, "/api/auth/me").authenticated()
                             .requestMatchers(HttpMethod.POST, "/api/auth/logout").authenticated()
@@ -66,28 +97,19 @@ public class SecurityConfig {
                             .requestMatchers(HttpMethod.DELETE, "/api/users/{userId}").authenticated()
                             .requestMatchers(HttpMethod.GET, "/api/users").hasAnyRole("ADMIN", "MANAGER")
                             .requestMatchers(HttpMethod.GET, "/api/users/{userId}").authenticated()
-                            // ((Hotels)) //
+                            // ((Hotels)) // public GETs -> catalogFilterChain
                             .requestMatchers(HttpMethod.POST, "/api/hotels").hasAnyRole("ADMIN", "MANAGER")
                             .requestMatchers(HttpMethod.PUT, "/api/hotels/{hotelId}").hasAnyRole("ADMIN", "MANAGER")
                             .requestMatchers(HttpMethod.DELETE, "/api/hotels/{hotelId}").hasAnyRole("ADMIN", "MANAGER")
-                            .requestMatchers(HttpMethod.GET, "/api/hotels").permitAll()
-                            .requestMatchers(HttpMethod.GET, "/api/hotels/{hotelId}").permitAll()
-                            .requestMatchers(HttpMethod.GET, "/api/hotels/search").permitAll()
-                            // ((Apartments)) //
+                            .requestMatchers(HttpMethod.GET, "/api/hotels/{hotelId}/occupancy").hasAnyRole("ADMIN", "MANAGER")
+                            // ((Apartments)) // public GETs -> catalogFilterChain
                             .requestMatchers(HttpMethod.POST, "/api/apartments").hasAnyRole("ADMIN", "MANAGER")
                             .requestMatchers(HttpMethod.PUT, "/api/apartments/{apartmentId}").hasAnyRole("ADMIN", "MANAGER")
                             .requestMatchers(HttpMethod.DELETE, "/api/apartments/{apartmentId}").hasAnyRole("ADMIN", "MANAGER")
-                            .requestMatchers(HttpMethod.GET, "/api/apartments/{apartmentId}").permitAll()
-                            .requestMatchers(HttpMethod.GET, "/api/apartments").permitAll()
-                            .requestMatchers(HttpMethod.GET, "/api/apartments/hotel/{hotelId}").permitAll()
-                            // ((Rooms)) //
+                            // ((Rooms)) // public GETs -> catalogFilterChain
                             .requestMatchers(HttpMethod.POST, "/api/rooms").hasAnyRole("ADMIN", "MANAGER")
                             .requestMatchers(HttpMethod.PUT, "/api/rooms/{roomId}").hasAnyRole("ADMIN", "MANAGER")
                             .requestMatchers(HttpMethod.DELETE, "/api/rooms/{roomId}").hasAnyRole("ADMIN", "MANAGER")
-                            .requestMatchers(HttpMethod.GET, "/api/rooms/{roomId}").permitAll()
-                            .requestMatchers(HttpMethod.GET, "/api/rooms").permitAll()
-                            .requestMatchers(HttpMethod.GET, "/api/rooms/apartment/{apartmentId}").permitAll()
-                            .requestMatchers(HttpMethod.GET, "/api/rooms/hotel/{hotelId}").permitAll()
                             // ((Bookings)) //
                             .requestMatchers(HttpMethod.POST, "/api/bookings").authenticated()
                             .requestMatchers(HttpMethod.DELETE, "/api/bookings/{bookingId}").authenticated()
@@ -114,6 +136,14 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // Runs inside the main chain only -> keep Boot from also registering it as a servlet filter for every request
+    @Bean
+    public FilterRegistrationBean<JwtAuthFilter> jwtAuthFilterRegistration() {
+        FilterRegistrationBean<JwtAuthFilter> registration = new FilterRegistrationBean<>(jwtAuthFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     AuthenticationManager authenticationManager(HttpSecurity http) throws Exception {
         var authBuilder = http.getSharedObject(AuthenticationManagerBuilder.class);
@@ -135,4 +165,25 @@ public class SecurityConfig {
         return source;
     }
 
+
+    // ==================== PRIVATE HELPER METHODS ====================
+    private static RequestMatcher catalogReads() {
+        PathPatternRequestMatcher.Builder get = PathPatternRequestMatcher.withDefaults();
+        return new OrRequestMatcher(Stream.of(
+                        "/api/hotels",
+                        "/api/hotels/{hotelId}",
+                        "/api/hotels/search",
+                        "/api/apartments",
+                        "/api/apartments/{apartmentId}",
+                        "/api/apartments/hotel/{hotelId}",
+                        "/api/apartments/{apartmentId}/calendar",
+                        "/api/rooms",
+                        "/api/rooms/{roomId}",
+                        "/api/rooms/apartment/{apartmentId}",
+                        "/api/rooms/hotel/{hotelId}",
+                        "/api/rooms/{roomId}/calendar")
+                .map(path -> (RequestMatcher) get.matcher(HttpMethod.GET, path))
+                .toList());
+    }
+
 }
\ No newline at end of file
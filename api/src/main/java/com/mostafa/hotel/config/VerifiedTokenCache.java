@@ -0,0 +1,94 @@
+package com.mostafa.hotel.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.function.Function;
+
+
+/*
+ * Claims of tokens whose signature was already verified 🎟️
+ * The SPA sends the same bearer token on every call, so the HMAC check and claim parsing run once per
+ * token instead of once per request. Keyed by the token's SHA-256 (the token itself is never kept),
+ * bounded by security.token-cache.max-size (least recently used goes first), and every entry expires
+ * with its token -> an expired token is never answered from here; on top of that, reads re-check exp.
+ * Hit/miss stats are published as the security.token cache metrics.
+ */
+@Component
+public class VerifiedTokenCache {
+    private final Cache<String, Claims> tokens;
+
+
+    @Autowired
+    public VerifiedTokenCache(MeterRegistry meterRegistry,
+                              @Value("${security.token-cache.max-size:10000}") long maxSize) {
+        this(meterRegistry, maxSize, Ticker.systemTicker());
+    }
+
+    VerifiedTokenCache(MeterRegistry meterRegistry, long maxSize, Ticker ticker) {
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.creating((String digest, Claims claims) -> untilExpiry(claims)))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokens, "security.token");
+    }
+
+
+    // Cached claims, or verify (verifier throws on a bad token -> nothing is cached)
+    public Claims verify(String token, Function<String, Claims> verifier) {
+        String digest = digest(token);
+        Claims claims = tokens.get(digest, key -> verifier.apply(token));
+
+        if (isExpired(claims)) {
+            tokens.invalidate(digest);
+            return verifier.apply(token);
+        }
+        return claims;
+    }
+
+    // Entries after pending evictions have run
+    long size() {
+        tokens.cleanUp();
+        return tokens.estimatedSize();
+    }
+
+
+    // ==================== PRIVATE HELPER METHODS ====================
+    private static Duration untilExpiry(Claims claims) {
+        Date expiration = claims.getExpiration();
+        long millis = expiration == null ? 0 : expiration.getTime() - System.currentTimeMillis();
+
+        return Duration.ofMillis(Math.max(0, millis));
+    }
+
+    private static boolean isExpired(Claims claims) {
+        return claims.getExpiration() == null || claims.getExpiration().getTime() <= System.currentTimeMillis();
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+
+
+}
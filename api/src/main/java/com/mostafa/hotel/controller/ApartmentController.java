@@ -5,6 +5,7 @@ import com.mostafa.hotel.dto.PaginatedResponse;
 import com.mostafa.hotel.dto.apartment.ApartmentResponseDTO;
 import com.mostafa.hotel.dto.apartment.CreateApartmentDTO;
 import com.mostafa.hotel.dto.apartment.UpdateApartmentDTO;
+import com.mostafa.hotel.dto.availability.AvailabilityCalendarDTO;
 import com.mostafa.hotel.enums.ApartmentType;
 import com.mostafa.hotel.global.GlobalResponse;
 import com.mostafa.hotel.service.ApartmentService;
@@ -12,11 +13,13 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.UUID;
 
 
@@ -67,6 +70,18 @@ public class ApartmentController {
         return new ResponseEntity<>(res, HttpStatus.OK);
     }
 
+    //    Availability Calendar By (apartmentId) -> '1' = free night, '0' = taken
+    @GetMapping("/{apartmentId}/calendar")
+    public ResponseEntity<GlobalResponse<AvailabilityCalendarDTO>> getApartmentCalendar(
+            @PathVariable UUID apartmentId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        AvailabilityCalendarDTO calendar = apartmentService.getApartmentCalendar(apartmentId, from, to);
+        GlobalResponse<AvailabilityCalendarDTO> res = new GlobalResponse<>(calendar);
+
+        return new ResponseEntity<>(res, HttpStatus.OK);
+    }
+
     //    Get All
     @GetMapping
     public ResponseEntity<GlobalResponse<PaginatedResponse<ApartmentResponseDTO>>> getAll(
@@ -94,6 +109,9 @@ public class ApartmentController {
             @RequestParam(required = false) Boolean hasAirConditioning,
             @RequestParam(required = false) Boolean hasParking,
             @RequestParam(required = false) Boolean hasLaundry,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "pricePerNight") String sortBy,
@@ -125,6 +143,9 @@ public class ApartmentController {
                 hasAirConditioning,
                 hasParking,
                 hasLaundry,
+                city,
+                checkIn,
+                checkOut,
                 page - 1,
                 size,
                 sortBy,
@@ -160,6 +181,9 @@ public class ApartmentController {
         if (hasAirConditioning != null) queryParams.append("&hasAirConditioning=").append(hasAirConditioning);
         if (hasParking != null) queryParams.append("&hasParking=").append(hasParking);
         if (hasLaundry != null) queryParams.append("&hasLaundry=").append(hasLaundry);
+        if (city != null) queryParams.append("&city=").append(city);
+        if (checkIn != null) queryParams.append("&checkIn=").append(checkIn);
+        if (checkOut != null) queryParams.append("&checkOut=").append(checkOut);
         queryParams.append("&size=").append(size);
         queryParams.append("&sortBy=").append(sortBy);
         queryParams.append("&direction=").append(direction);
@@ -215,6 +239,8 @@ public class ApartmentController {
             @RequestParam(required = false) Boolean hasAirConditioning,
             @RequestParam(required = false) Boolean hasParking,
             @RequestParam(required = false) Boolean hasLaundry,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "pricePerNight") String sortBy,
@@ -247,6 +273,8 @@ public class ApartmentController {
                 hasAirConditioning,
                 hasParking,
                 hasLaundry,
+                checkIn,
+                checkOut,
                 page - 1,
                 size,
                 sortBy,
@@ -282,6 +310,8 @@ public class ApartmentController {
         if (hasAirConditioning != null) queryParams.append("&hasAirConditioning=").append(hasAirConditioning);
         if (hasParking != null) queryParams.append("&hasParking=").append(hasParking);
         if (hasLaundry != null) queryParams.append("&hasLaundry=").append(hasLaundry);
+        if (checkIn != null) queryParams.append("&checkIn=").append(checkIn);
+        if (checkOut != null) queryParams.append("&checkOut=").append(checkOut);
         queryParams.append("&size=").append(size);
         queryParams.append("&sortBy=").append(sortBy);
         queryParams.append("&direction=").append(direction);
@@ -58,7 +58,8 @@ public class AuthController {
 
     @PostMapping("/logout")
     public ResponseEntity<GlobalResponse<String>> logout() {
-        // Clear security context
+        // Revoke the user's tokens (stateless mode), then clear security context
+        authService.logout();
         SecurityContextHolder.clearContext();
         return new ResponseEntity<>(new GlobalResponse<>("Logged out successfully"), HttpStatus.OK);
     }
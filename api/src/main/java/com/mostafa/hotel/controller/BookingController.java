@@ -1,19 +1,22 @@
 package com.mostafa.hotel.controller;
 
+import com.mostafa.hotel.dto.CursorPage;
 import com.mostafa.hotel.dto.PaginatedResponse;
 import com.mostafa.hotel.dto.booking.BookingResponseDTO;
 import com.mostafa.hotel.dto.booking.CreateBookingDTO;
+import com.mostafa.hotel.enums.BookingStatus;
 import com.mostafa.hotel.global.GlobalResponse;
 import com.mostafa.hotel.service.BookingService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.time.LocalDate;
 import java.util.UUID;
 
 
@@ -59,11 +62,23 @@ public class BookingController {
     public ResponseEntity<GlobalResponse<PaginatedResponse<BookingResponseDTO>>> getAllForCurrentUser(
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
             HttpServletRequest req
     ) {
+        String baseUrl = req.getRequestURL().toString();
+
+        // Keyset mode 🔖 -> (?cursor=) starts it, no COUNT, follow nextCursor
+        if (cursor != null) {
+            CursorPage<BookingResponseDTO> bookingsPage = bookingService.getCurrentUserBookingsAfter(cursor, size);
+            String nextUrl = bookingsPage.nextCursor() != null
+                    ? String.format("%s?cursor=%s&size=%d", baseUrl, bookingsPage.nextCursor(), size)
+                    : null;
+
+            return new ResponseEntity<>(new GlobalResponse<>(PaginatedResponse.ofCursor(bookingsPage, nextUrl)), HttpStatus.OK);
+        }
+
         Page<BookingResponseDTO> bookings = bookingService.getCurrentUserBookings(page - 1, size);
 
-        String baseUrl = req.getRequestURL().toString();
         String nextUrl = bookings.hasNext() ? String.format("%s?page=%d&size=%d", baseUrl, page + 1, size) : null;
         String prevUrl = bookings.hasPrevious() ? String.format("%s?page=%d&size=%d", baseUrl, page - 1, size) : null;
 
@@ -110,21 +125,90 @@ public class BookingController {
     }
 
 
-    //    Get All For (((Specific-Room)))
+    //    Get All For (((Specific-Room))) -> paginated history, optional [from, to) window and status
     @GetMapping("/room/{roomId}")
-    public ResponseEntity<GlobalResponse<List<BookingResponseDTO>>> getAllForRoom(
-            @PathVariable UUID roomId
+    public ResponseEntity<GlobalResponse<PaginatedResponse<BookingResponseDTO>>> getAllForRoom(
+            @PathVariable UUID roomId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) BookingStatus status,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "10") int size,
+            HttpServletRequest req
     ) {
-        return new ResponseEntity<>(new GlobalResponse<>(bookingService.getRoomBookings(roomId)), HttpStatus.OK);
+        Page<BookingResponseDTO> bookings = bookingService.getRoomBookings(roomId, from, to, status, page - 1, size);
+
+        String baseUrl = req.getRequestURL().toString();
+
+        // Build query params for pagination URLs
+        StringBuilder queryParams = new StringBuilder();
+        if (from != null) queryParams.append("&from=").append(from);
+        if (to != null) queryParams.append("&to=").append(to);
+        if (status != null) queryParams.append("&status=").append(status);
+        queryParams.append("&size=").append(size);
+
+        String nextUrl = bookings.hasNext()
+                ? String.format("%s?page=%d%s", baseUrl, page + 1, queryParams)
+                : null;
+        String prevUrl = bookings.hasPrevious()
+                ? String.format("%s?page=%d%s", baseUrl, page - 1, queryParams)
+                : null;
+
+        var paginatedResponse = new PaginatedResponse<BookingResponseDTO>(
+                bookings.getContent(),
+                bookings.getNumber() + 1,
+                bookings.getTotalPages(),
+                bookings.getTotalElements(),
+                bookings.hasNext(),
+                bookings.hasPrevious(),
+                nextUrl,
+                prevUrl
+        );
+
+        return new ResponseEntity<>(new GlobalResponse<>(paginatedResponse), HttpStatus.OK);
     }
 
-    //    Get All For (((Specific-Apartment)))
+    //    Get All For (((Specific-Apartment))) -> paginated history, optional [from, to) window and status
     @GetMapping("/apartment/{apartmentId}")
-    public ResponseEntity<GlobalResponse<List<BookingResponseDTO>>> getAllForApartment(
-            @PathVariable UUID apartmentId
+    public ResponseEntity<GlobalResponse<PaginatedResponse<BookingResponseDTO>>> getAllForApartment(
+            @PathVariable UUID apartmentId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) BookingStatus status,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "10") int size,
+            HttpServletRequest req
     ) {
-        return new ResponseEntity<>(new GlobalResponse<>(bookingService.getApartmentBookings(apartmentId)), HttpStatus.OK);
-    }
+        Page<BookingResponseDTO> bookings = bookingService.getApartmentBookings(apartmentId, from, to, status, page - 1, size);
 
+        String baseUrl = req.getRequestURL().toString();
+
+        // Build query params for pagination URLs
+        StringBuilder queryParams = new StringBuilder();
+        if (from != null) queryParams.append("&from=").append(from);
+        if (to != null) queryParams.append("&to=").append(to);
+        if (status != null) queryParams.append("&status=").append(status);
+        queryParams.append("&size=").append(size);
+
+        String nextUrl = bookings.hasNext()
+                ? String.format("%s?page=%d%s", baseUrl, page + 1, queryParams)
+                : null;
+        String prevUrl = bookings.hasPrevious()
+                ? String.format("%s?page=%d%s", baseUrl, page - 1, queryParams)
+                : null;
+
+        var paginatedResponse = new PaginatedResponse<BookingResponseDTO>(
+                bookings.getContent(),
+                bookings.getNumber() + 1,
+                bookings.getTotalPages(),
+                bookings.getTotalElements(),
+                bookings.hasNext(),
+                bookings.hasPrevious(),
+                nextUrl,
+                prevUrl
+        );
+
+        return new ResponseEntity<>(new GlobalResponse<>(paginatedResponse), HttpStatus.OK);
+    }
 
 }
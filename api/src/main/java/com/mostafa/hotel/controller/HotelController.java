@@ -1,6 +1,7 @@
 package com.mostafa.hotel.controller;
 
 
+import com.mostafa.hotel.dto.CursorPage;
 import com.mostafa.hotel.dto.PaginatedResponse;
 import com.mostafa.hotel.dto.hotel.CreateHotelDTO;
 import com.mostafa.hotel.dto.hotel.HotelResponseDTO;
@@ -8,13 +9,18 @@ import com.mostafa.hotel.dto.hotel.UpdateHotelDTO;
 import com.mostafa.hotel.global.GlobalResponse;
 import com.mostafa.hotel.service.HotelService;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.UUID;
 
 
@@ -65,16 +71,39 @@ public class HotelController {
         return new ResponseEntity<>(res, HttpStatus.OK);
     }
 
+    //    Occupancy Grid By (hotelId) -> streamed, one row per room/apartment ('1' = free night, '0' = occupied)
+    @GetMapping("/{hotelId}/occupancy")
+    public void getOccupancy(
+            @PathVariable UUID hotelId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletResponse res) throws IOException {
+        res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        hotelService.writeOccupancy(hotelId, from, to, res.getOutputStream());
+    }
+
     //    Get All
     @GetMapping
     public ResponseEntity<GlobalResponse<PaginatedResponse<HotelResponseDTO>>> getAll(
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
             HttpServletRequest req
     ) {
+        String baseUrl = req.getRequestURL().toString();
+
+        // Keyset mode 🔖 -> (?cursor=) starts it, no COUNT, follow nextCursor
+        if (cursor != null) {
+            CursorPage<HotelResponseDTO> hotelsPage = hotelService.getHotelsAfter(cursor, size);
+            String nextUrl = hotelsPage.nextCursor() != null
+                    ? String.format("%s?cursor=%s&size=%d", baseUrl, hotelsPage.nextCursor(), size)
+                    : null;
+
+            return new ResponseEntity<>(new GlobalResponse<>(PaginatedResponse.ofCursor(hotelsPage, nextUrl)), HttpStatus.OK);
+        }
+
         Page<HotelResponseDTO> hotels = hotelService.getAllHotels(page - 1, size);
 
-        String baseUrl = req.getRequestURL().toString();
         String nextUrl = hotels.hasNext() ? String.format("%s?page=%d&size=%d", baseUrl, page + 1, size) : null;
         String prevUrl = hotels.hasPrevious() ? String.format("%s?page=%d&size=%d", baseUrl, page - 1, size) : null;
 
@@ -97,6 +126,7 @@ public class HotelController {
     //    Big Search
     @GetMapping("/search")
     public ResponseEntity<GlobalResponse<PaginatedResponse<HotelResponseDTO>>> searchHotels(
+            @RequestParam(required = false) String q,
             @RequestParam(required = false) String name,
             @RequestParam(required = false) String city,
             @RequestParam(required = false) String country,
@@ -108,23 +138,33 @@ public class HotelController {
             @RequestParam(defaultValue = "DESC") String direction,
             HttpServletRequest req
     ) {
-        Page<HotelResponseDTO> hotels = hotelService.searchHotels(
-                name, city, country, phoneNumber, isActive,
-                page - 1, size, sortBy, direction
-        );
+        // Text mode 🔎 -> (?q=) ranks by relevance, the other filters and the sort are not applied
+        boolean textMode = q != null && !q.isBlank();
+
+        Page<HotelResponseDTO> hotels = textMode
+                ? hotelService.searchHotelsByText(q, page - 1, size)
+                : hotelService.searchHotels(
+                        name, city, country, phoneNumber, isActive,
+                        page - 1, size, sortBy, direction
+                );
 
         String baseUrl = req.getRequestURL().toString();
 
         // Build query params for pagination URLs
         StringBuilder queryParams = new StringBuilder();
-        if (name != null) queryParams.append("&name=").append(name);
-        if (city != null) queryParams.append("&city=").append(city);
-        if (country != null) queryParams.append("&country=").append(country);
-        if (phoneNumber != null) queryParams.append("&phoneNumber=").append(phoneNumber);
-        if (isActive != null) queryParams.append("&isActive=").append(isActive);
-        queryParams.append("&size=").append(size);
-        queryParams.append("&sortBy=").append(sortBy);
-        queryParams.append("&direction=").append(direction);
+        if (textMode) {
+            queryParams.append("&q=").append(q);
+            queryParams.append("&size=").append(size);
+        } else {
+            if (name != null) queryParams.append("&name=").append(name);
+            if (city != null) queryParams.append("&city=").append(city);
+            if (country != null) queryParams.append("&country=").append(country);
+            if (phoneNumber != null) queryParams.append("&phoneNumber=").append(phoneNumber);
+            if (isActive != null) queryParams.append("&isActive=").append(isActive);
+            queryParams.append("&size=").append(size);
+            queryParams.append("&sortBy=").append(sortBy);
+            queryParams.append("&direction=").append(direction);
+        }
 
         String nextUrl = hotels.hasNext()
                 ? String.format("%s?page=%d%s", baseUrl, page + 1, queryParams)
@@ -1,6 +1,7 @@
 package com.mostafa.hotel.controller;
 
 
+import com.mostafa.hotel.dto.CursorPage;
 import com.mostafa.hotel.dto.PaginatedResponse;
 import com.mostafa.hotel.dto.payment.CreatePaymentDTO;
 import com.mostafa.hotel.dto.payment.PayShortageDTO;
@@ -118,11 +119,23 @@ public class PaymentController {
     public ResponseEntity<GlobalResponse<PaginatedResponse<PaymentResponseDTO>>> getAll(
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
             HttpServletRequest req
     ) {
+        String baseUrl = req.getRequestURL().toString();
+
+        // Keyset mode 🔖 -> (?cursor=) starts it, no COUNT, follow nextCursor
+        if (cursor != null) {
+            CursorPage<PaymentResponseDTO> paymentsPage = paymentService.getAllPaymentsAfter(cursor, size);
+            String nextUrl = paymentsPage.nextCursor() != null
+                    ? String.format("%s?cursor=%s&size=%d", baseUrl, paymentsPage.nextCursor(), size)
+                    : null;
+
+            return new ResponseEntity<>(new GlobalResponse<>(PaginatedResponse.ofCursor(paymentsPage, nextUrl)), HttpStatus.OK);
+        }
+
         Page<PaymentResponseDTO> payments = paymentService.getAllPayments(page - 1, size);
 
-        String baseUrl = req.getRequestURL().toString();
         String nextUrl = payments.hasNext() ? String.format("%s?page=%d&size=%d", baseUrl, page + 1, size) : null;
         String prevUrl = payments.hasPrevious() ? String.format("%s?page=%d&size=%d", baseUrl, page - 1, size) : null;
 
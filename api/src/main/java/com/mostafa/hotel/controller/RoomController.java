@@ -1,7 +1,10 @@
 package com.mostafa.hotel.controller;
 
 
+import com.mostafa.hotel.dto.CursorPage;
+import com.mostafa.hotel.dto.FacetedSlice;
 import com.mostafa.hotel.dto.PaginatedResponse;
+import com.mostafa.hotel.dto.availability.AvailabilityCalendarDTO;
 import com.mostafa.hotel.dto.room.CreateRoomDTO;
 import com.mostafa.hotel.dto.room.RoomResponseDTO;
 import com.mostafa.hotel.dto.room.UpdateRoomDTO;
@@ -12,11 +15,13 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.UUID;
 
 
@@ -67,6 +72,18 @@ public class RoomController {
         return new ResponseEntity<>(res, HttpStatus.OK);
     }
 
+    //    Availability Calendar By (roomId) -> '1' = free night, '0' = taken
+    @GetMapping("/{roomId}/calendar")
+    public ResponseEntity<GlobalResponse<AvailabilityCalendarDTO>> getRoomCalendar(
+            @PathVariable UUID roomId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        AvailabilityCalendarDTO calendar = roomService.getRoomCalendar(roomId, from, to);
+        GlobalResponse<AvailabilityCalendarDTO> res = new GlobalResponse<>(calendar);
+
+        return new ResponseEntity<>(res, HttpStatus.OK);
+    }
+
     //    Get All
     @GetMapping
     public ResponseEntity<GlobalResponse<PaginatedResponse<RoomResponseDTO>>> getAllRooms(
@@ -83,32 +100,18 @@ public class RoomController {
             @RequestParam(required = false) Boolean hasMiniBar,
             @RequestParam(required = false) Boolean hasBalcony,
             @RequestParam(required = false) Boolean hasPrivateBathroom,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "pricePerNight") String sortBy,
             @RequestParam(defaultValue = "ASC") String direction,
+            @RequestParam(defaultValue = "true") boolean withTotal,
+            @RequestParam(defaultValue = "false") boolean facets,
+            @RequestParam(required = false) String cursor,
             HttpServletRequest req
     ) {
-        Page<RoomResponseDTO> rooms = roomService.getAll(
-                roomNumber,
-                roomType,
-                minPrice,
-                maxPrice,
-                minCapacity,
-                maxCapacity,
-                isAvailable,
-                hasWifi,
-                hasAirConditioning,
-                hasTv,
-                hasMiniBar,
-                hasBalcony,
-                hasPrivateBathroom,
-                page - 1,
-                size,
-                sortBy,
-                direction
-        );
-
         String baseUrl = req.getRequestURL().toString();
 
         // Build query params for pagination URLs
@@ -126,27 +129,80 @@ public class RoomController {
         if (hasMiniBar != null) queryParams.append("&hasMiniBar=").append(hasMiniBar);
         if (hasBalcony != null) queryParams.append("&hasBalcony=").append(hasBalcony);
         if (hasPrivateBathroom != null) queryParams.append("&hasPrivateBathroom=").append(hasPrivateBathroom);
+        if (city != null) queryParams.append("&city=").append(city);
+        if (checkIn != null) queryParams.append("&checkIn=").append(checkIn);
+        if (checkOut != null) queryParams.append("&checkOut=").append(checkOut);
         queryParams.append("&size=").append(size);
+
+        // Keyset mode 🔖 -> (?cursor=) starts it, no COUNT, follow nextCursor
+        if (cursor != null) {
+            CursorPage<RoomResponseDTO> rooms = roomService.getAllAfter(
+                    roomNumber,
+                    roomType,
+                    minPrice,
+                    maxPrice,
+                    minCapacity,
+                    maxCapacity,
+                    isAvailable,
+                    hasWifi,
+                    hasAirConditioning,
+                    hasTv,
+                    hasMiniBar,
+                    hasBalcony,
+                    hasPrivateBathroom,
+                    city,
+                    checkIn,
+                    checkOut,
+                    cursor,
+                    size
+            );
+
+            String nextUrl = rooms.nextCursor() != null
+                    ? String.format("%s?cursor=%s%s", baseUrl, rooms.nextCursor(), queryParams)
+                    : null;
+
+            return new ResponseEntity<>(new GlobalResponse<>(PaginatedResponse.ofCursor(rooms, nextUrl)), HttpStatus.OK);
+        }
+
+        // Facets 🧮 -> (?facets=true) adds per-filter counts to the page (offset mode only)
+        FacetedSlice<RoomResponseDTO> rooms = roomService.getAll(
+                roomNumber,
+                roomType,
+                minPrice,
+                maxPrice,
+                minCapacity,
+                maxCapacity,
+                isAvailable,
+                hasWifi,
+                hasAirConditioning,
+                hasTv,
+                hasMiniBar,
+                hasBalcony,
+                hasPrivateBathroom,
+                city,
+                checkIn,
+                checkOut,
+                page - 1,
+                size,
+                sortBy,
+                direction,
+                withTotal,
+                facets
+        );
+
         queryParams.append("&sortBy=").append(sortBy);
         queryParams.append("&direction=").append(direction);
+        if (!withTotal) queryParams.append("&withTotal=false");
+        if (facets) queryParams.append("&facets=true");
 
-        String nextUrl = rooms.hasNext()
+        String nextUrl = rooms.slice().hasNext()
                 ? String.format("%s?page=%d%s", baseUrl, page + 1, queryParams)
                 : null;
-        String prevUrl = rooms.hasPrevious()
+        String prevUrl = rooms.slice().hasPrevious()
                 ? String.format("%s?page=%d%s", baseUrl, page - 1, queryParams)
                 : null;
 
-        var paginatedResponse = new PaginatedResponse<>(
-                rooms.getContent(),
-                rooms.getNumber() + 1,
-                rooms.getTotalPages(),
-                rooms.getTotalElements(),
-                rooms.hasNext(),
-                rooms.hasPrevious(),
-                nextUrl,
-                prevUrl
-        );
+        var paginatedResponse = PaginatedResponse.of(rooms, nextUrl, prevUrl);
 
         return new ResponseEntity<>(new GlobalResponse<>(paginatedResponse), HttpStatus.OK);
     }
@@ -263,6 +319,8 @@ public class RoomController {
             @RequestParam(required = false) Boolean hasMiniBar,
             @RequestParam(required = false) Boolean hasBalcony,
             @RequestParam(required = false) Boolean hasPrivateBathroom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "pricePerNight") String sortBy,
@@ -284,6 +342,8 @@ public class RoomController {
                 hasMiniBar,
                 hasBalcony,
                 hasPrivateBathroom,
+                checkIn,
+                checkOut,
                 page - 1,
                 size,
                 sortBy,
@@ -307,6 +367,8 @@ public class RoomController {
         if (hasMiniBar != null) queryParams.append("&hasMiniBar=").append(hasMiniBar);
         if (hasBalcony != null) queryParams.append("&hasBalcony=").append(hasBalcony);
         if (hasPrivateBathroom != null) queryParams.append("&hasPrivateBathroom=").append(hasPrivateBathroom);
+        if (checkIn != null) queryParams.append("&checkIn=").append(checkIn);
+        if (checkOut != null) queryParams.append("&checkOut=").append(checkOut);
         queryParams.append("&size=").append(size);
         queryParams.append("&sortBy=").append(sortBy);
         queryParams.append("&direction=").append(direction);
@@ -1,5 +1,6 @@
 package com.mostafa.hotel.controller;
 
+import com.mostafa.hotel.dto.CursorPage;
 import com.mostafa.hotel.dto.PaginatedResponse;
 import com.mostafa.hotel.dto.user.UpdateUserDTO;
 import com.mostafa.hotel.dto.user.UserResponseDTO;
@@ -47,11 +48,23 @@ public class UserController {
     public ResponseEntity<GlobalResponse<PaginatedResponse<UserResponseDTO>>> getAll(
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
             HttpServletRequest req
     ) {
+        String baseUrl = req.getRequestURL().toString();
+
+        // Keyset mode 🔖 -> (?cursor=) starts it, no COUNT, follow nextCursor
+        if (cursor != null) {
+            CursorPage<UserResponseDTO> usersPage = userService.getAllUsersAfter(cursor, size);
+            String nextUrl = usersPage.nextCursor() != null
+                    ? String.format("%s?cursor=%s&size=%d", baseUrl, usersPage.nextCursor(), size)
+                    : null;
+
+            return new ResponseEntity<>(new GlobalResponse<>(PaginatedResponse.ofCursor(usersPage, nextUrl)), HttpStatus.OK);
+        }
+
         Page<UserResponseDTO> users = userService.getAllUsers(page - 1, size);
 
-        String baseUrl = req.getRequestURL().toString();
         String nextUrl = users.hasNext() ? String.format("%s?page=%d&size=%d", baseUrl, page + 1, size) : null;
         String prevUrl = users.hasPrevious() ? String.format("%s?page=%d&size=%d", baseUrl, page - 1, size) : null;
 
@@ -0,0 +1,22 @@
+package com.mostafa.hotel.dto;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+
+// One keyset page -> nextCursor is null on the last page
+public record CursorPage<T>(
+        List<T> content,
+        String nextCursor
+) {
+    public static <E, T> CursorPage<T> of(Slice<E> slice, Function<E, T> mapper, Function<E, String> cursorOf) {
+        List<E> rows = slice.getContent();
+        String nextCursor = slice.hasNext() && !rows.isEmpty()
+                ? cursorOf.apply(rows.get(rows.size() - 1))
+                : null;
+
+        return new CursorPage<>(rows.stream().map(mapper).toList(), nextCursor);
+    }
+}
@@ -0,0 +1,13 @@
+package com.mostafa.hotel.dto;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.Map;
+
+
+// One offset page plus the facet counts of its filters -> facets is null unless they were asked for
+public record FacetedSlice<T>(
+        Slice<T> slice,
+        Map<String, Map<String, Long>> facets
+) {
+}
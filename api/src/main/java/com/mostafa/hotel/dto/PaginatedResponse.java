@@ -1,15 +1,52 @@
 package com.mostafa.hotel.dto;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
 import java.util.List;
+import java.util.Map;
 
+/*
+ * Offset mode -> page numbers and totals, nextCursor is null
+ *   (withTotal=false -> a Slice: page numbers only, totals null, no COUNT query)
+ * Cursor mode -> no page numbers/totals (no COUNT query), follow nextCursor / nextPageUrl
+ * facets -> counts per filter dimension and value over the whole result set, null unless requested
+ */
 public record PaginatedResponse<T>(
         List<T> content,
-        int currentPage,
-        int totalPages,
-        long totalItems,
+        Integer currentPage,
+        Integer totalPages,
+        Long totalItems,
         boolean hasNext,
         boolean hasPrevious,
         String nextPageUrl,
-        String previousPageUrl
+        String previousPageUrl,
+        String nextCursor,
+        Map<String, Map<String, Long>> facets
 ) {
-}
\ No newline at end of file
+    public PaginatedResponse(List<T> content, int currentPage, int totalPages, long totalItems,
+                             boolean hasNext, boolean hasPrevious, String nextPageUrl, String previousPageUrl) {
+        this(content, currentPage, totalPages, totalItems, hasNext, hasPrevious, nextPageUrl, previousPageUrl, null, null);
+    }
+
+    // Page -> with totals, plain Slice -> without
+    public static <T> PaginatedResponse<T> of(Slice<T> slice, String nextPageUrl, String previousPageUrl) {
+        Integer totalPages = slice instanceof Page<T> page ? page.getTotalPages() : null;
+        Long totalItems = slice instanceof Page<T> page ? page.getTotalElements() : null;
+
+        return new PaginatedResponse<>(slice.getContent(), slice.getNumber() + 1, totalPages, totalItems,
+                slice.hasNext(), slice.hasPrevious(), nextPageUrl, previousPageUrl, null, null);
+    }
+
+    public static <T> PaginatedResponse<T> of(FacetedSlice<T> page, String nextPageUrl, String previousPageUrl) {
+        PaginatedResponse<T> res = of(page.slice(), nextPageUrl, previousPageUrl);
+
+        return new PaginatedResponse<>(res.content(), res.currentPage(), res.totalPages(), res.totalItems(),
+                res.hasNext(), res.hasPrevious(), nextPageUrl, previousPageUrl, null, page.facets());
+    }
+
+    public static <T> PaginatedResponse<T> ofCursor(CursorPage<T> page, String nextPageUrl) {
+        return new PaginatedResponse<>(page.content(), null, null, null,
+                page.nextCursor() != null, false, nextPageUrl, null, page.nextCursor(), null);
+    }
+}
@@ -0,0 +1,32 @@
+package com.mostafa.hotel.dto.availability;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.UUID;
+
+
+/*
+ * Per-night calendar for one room or apartment over [from, to)
+ * availability.charAt(i) -> night (from + i days): '1' = free, '0' = booked or blocked
+ * (366 nights ≈ 370 bytes on the wire)
+ */
+public record AvailabilityCalendarDTO(
+        UUID unitId,
+        LocalDate from,
+        LocalDate to,
+        BigDecimal pricePerNight,
+        String availability
+) {
+    public static AvailabilityCalendarDTO of(UUID unitId, LocalDate from, LocalDate to,
+                                             BigDecimal pricePerNight, Collection<Integer> takenNights) {
+        char[] nights = new char[(int) (to.toEpochDay() - from.toEpochDay())];
+        Arrays.fill(nights, '1');
+        for (Integer night : takenNights) {
+            nights[night] = '0';
+        }
+
+        return new AvailabilityCalendarDTO(unitId, from, to, pricePerNight, new String(nights));
+    }
+}
@@ -0,0 +1,12 @@
+package com.mostafa.hotel.dto.availability;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+
+// One night that is blocked in room_availability / apartment_availability
+public record BlockedNightDTO(
+        UUID unitId,
+        LocalDate date
+) {
+}
@@ -0,0 +1,13 @@
+package com.mostafa.hotel.dto.availability;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+
+// Nights [checkIn, checkOut) that are taken for one room or apartment
+public record BookedRangeDTO(
+        UUID unitId,
+        LocalDate checkIn,
+        LocalDate checkOut
+) {
+}
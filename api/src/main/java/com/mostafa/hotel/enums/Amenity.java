@@ -0,0 +1,34 @@
+package com.mostafa.hotel.enums;
+
+/*
+ * An amenity stored as one bit of its unit's amenities mask (bit = 1 << ordinal)
+ * -> constants may be appended, never reordered or removed, or stored masks change meaning.
+ */
+public interface Amenity {
+
+    int ordinal();
+
+    // Entity / DTO / request-param name of the flag, e.g. "hasWifi"
+    String field();
+
+    default int bit() {
+        return 1 << ordinal();
+    }
+
+    default boolean in(int mask) {
+        return (mask & bit()) != 0;
+    }
+
+    // null counts as "no" (the mask has no third state)
+    default int set(int mask, Boolean present) {
+        return Boolean.TRUE.equals(present) ? mask | bit() : mask & ~bit();
+    }
+
+    static int maskOf(Amenity... amenities) {
+        int mask = 0;
+        for (Amenity amenity : amenities) {
+            mask |= amenity.bit();
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,24 @@
+package com.mostafa.hotel.enums;
+
+// Bits of apartments.amenities (order = bit position, see Amenity)
+public enum ApartmentAmenity implements Amenity {
+    KITCHEN("hasKitchen"),
+    LIVING_ROOM("hasLivingRoom"),
+    DINING_AREA("hasDiningArea"),
+    BALCONY("hasBalcony"),
+    WIFI("hasWifi"),
+    AIR_CONDITIONING("hasAirConditioning"),
+    PARKING("hasParking"),
+    LAUNDRY("hasLaundry");
+
+    private final String field;
+
+    ApartmentAmenity(String field) {
+        this.field = field;
+    }
+
+    @Override
+    public String field() {
+        return field;
+    }
+}
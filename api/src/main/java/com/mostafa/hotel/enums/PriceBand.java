@@ -0,0 +1,33 @@
+package com.mostafa.hotel.enums;
+
+import java.math.BigDecimal;
+
+// Price-per-night buckets of the search facets -> [min, max), null = open end
+public enum PriceBand {
+    UNDER_100("0-100", null, 100),
+    FROM_100_TO_200("100-200", 100, 200),
+    FROM_200_TO_500("200-500", 200, 500),
+    FROM_500("500+", 500, null);
+
+    private final String label;
+    private final BigDecimal min;
+    private final BigDecimal max;
+
+    PriceBand(String label, Integer min, Integer max) {
+        this.label = label;
+        this.min = min == null ? null : BigDecimal.valueOf(min);
+        this.max = max == null ? null : BigDecimal.valueOf(max);
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public BigDecimal min() {
+        return min;
+    }
+
+    public BigDecimal max() {
+        return max;
+    }
+}
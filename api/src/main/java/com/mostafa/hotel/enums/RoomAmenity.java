@@ -0,0 +1,22 @@
+package com.mostafa.hotel.enums;
+
+// Bits of rooms.amenities (order = bit position, see Amenity)
+public enum RoomAmenity implements Amenity {
+    WIFI("hasWifi"),
+    AIR_CONDITIONING("hasAirConditioning"),
+    TV("hasTv"),
+    MINI_BAR("hasMiniBar"),
+    BALCONY("hasBalcony"),
+    PRIVATE_BATHROOM("hasPrivateBathroom");
+
+    private final String field;
+
+    RoomAmenity(String field) {
+        this.field = field;
+    }
+
+    @Override
+    public String field() {
+        return field;
+    }
+}
@@ -22,5 +22,9 @@ public class CustomResponseException extends RuntimeException {
         return new CustomResponseException(message, 400);
     }
 
+    public static CustomResponseException Conflict(String message) {
+        return new CustomResponseException(message, 409);
+    }
+
 
 }
\ No newline at end of file
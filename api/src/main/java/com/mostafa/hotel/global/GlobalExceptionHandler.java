@@ -1,6 +1,7 @@
 package com.mostafa.hotel.global;
 
 
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -34,6 +35,17 @@ public class GlobalExceptionHandler {
     }
 
 
+    //    When Two Requests Fight Over The Same Row (lock timeout / deadlock)
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<?> handleConcurrencyFailureException(ConcurrencyFailureException ex) {
+        List<GlobalResponse.ErrorItem> errors = List.of(
+                new GlobalResponse.ErrorItem("This resource is being updated by another request, please try again")
+        );
+
+        return new ResponseEntity<>(new GlobalResponse<>(errors), HttpStatus.CONFLICT);
+    }
+
+
     //    When User Send ((Shortage Data)) Validation
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<?> handleValidationException(MethodArgumentNotValidException ex) {
@@ -232,10 +232,15 @@ public class EntityDtoMapper {
     // ****************************** ((Booking)) ************************* //
     public Booking toBookingEntity(CreateBookingDTO createBookingDTO, User user, Hotel hotel,
                                    Apartment apartment, Room room) {
+        BigDecimal pricePerNight = (apartment != null) ? apartment.getPricePerNight() : room.getPricePerNight();
+        long numberOfNights = ChronoUnit.DAYS.between(createBookingDTO.checkInDate(), createBookingDTO.checkOutDate());
+
         return Booking.builder()
                 .checkInDate(createBookingDTO.checkInDate())
                 .checkOutDate(createBookingDTO.checkOutDate())
                 .numberOfGuests(createBookingDTO.numberOfGuests())
+                .pricePerNight(pricePerNight)
+                .totalAmount(pricePerNight.multiply(BigDecimal.valueOf(numberOfNights)))
                 .bookingType(createBookingDTO.bookingType())
                 .status(BookingStatus.PENDING)
                 .user(user)
@@ -248,36 +253,14 @@ public class EntityDtoMapper {
     public BookingResponseDTO toBookingResponseDTO(Booking booking) {
         Payment payment = booking.getPayment();
 
-        // Calculate expected amount and shortage
-        BigDecimal expectedAmount = null;
+        // Money comes from the snapshot stored on the booking -> no unit load, unaffected by later price edits
+        BigDecimal expectedAmount = booking.getTotalAmount();
         BigDecimal shortageAmount = null;
         Boolean hasShortage = false;
 
-        if (booking.getCheckInDate() != null && booking.getCheckOutDate() != null) {
-            long numberOfNights = ChronoUnit.DAYS.between(
-                    booking.getCheckInDate(),
-                    booking.getCheckOutDate()
-            );
-
-            if (numberOfNights > 0) {
-                BigDecimal pricePerNight = null;
-
-                if (booking.isApartmentBooking() && booking.getApartment() != null) {
-                    pricePerNight = booking.getApartment().getPricePerNight();
-                } else if (booking.isRoomBooking() && booking.getRoom() != null) {
-                    pricePerNight = booking.getRoom().getPricePerNight();
-                }
-
-                if (pricePerNight != null) {
-                    expectedAmount = pricePerNight.multiply(BigDecimal.valueOf(numberOfNights));
-
-                    // Calculate shortage if payment exists and is REFUNDED
-                    if (payment != null && payment.getStatus() == PaymentStatus.REFUNDED) {
-                        shortageAmount = expectedAmount.subtract(payment.getAmount());
-                        hasShortage = shortageAmount.compareTo(BigDecimal.ZERO) > 0;
-                    }
-                }
-            }
+        if (expectedAmount != null && payment != null && payment.getStatus() == PaymentStatus.REFUNDED) {
+            shortageAmount = expectedAmount.subtract(payment.getAmount());
+            hasShortage = shortageAmount.compareTo(BigDecimal.ZERO) > 0;
         }
 
         return new BookingResponseDTO(
@@ -308,7 +291,7 @@ public class EntityDtoMapper {
                 booking.getApartment() != null ? booking.getApartment().getId() : null,
                 booking.getApartment() != null ? booking.getApartment().getApartmentNumber() : null,
                 booking.getApartment() != null ? booking.getApartment().getName() : null,
-                booking.getApartment() != null ? booking.getApartment().getPricePerNight() : null,
+                booking.getApartment() != null ? booking.getPricePerNight() : null,
                 booking.getApartment() != null ? booking.getApartment().getTotalCapacity() : null,
                 booking.getApartment() != null ? booking.getApartment().getImageUrl() : null,
                 booking.getApartment() != null ? booking.getApartment().getApartmentType() : null,
@@ -316,7 +299,7 @@ public class EntityDtoMapper {
                 // Room information
                 booking.getRoom() != null ? booking.getRoom().getId() : null,
                 booking.getRoom() != null ? booking.getRoom().getRoomNumber() : null,
-                booking.getRoom() != null ? booking.getRoom().getPricePerNight() : null,
+                booking.getRoom() != null ? booking.getPricePerNight() : null,
                 booking.getRoom() != null ? booking.getRoom().getCapacity() : null,
                 booking.getRoom() != null ? booking.getRoom().getImageUrl() : null,
                 booking.getRoom() != null ? booking.getRoom().getRoomType() : null,
@@ -352,38 +335,17 @@ public class EntityDtoMapper {
         var apartment = (booking != null) ? booking.getApartment() : null;
         var room = (booking != null) ? booking.getRoom() : null;
 
-        BigDecimal expectedAmount = null;
+        BigDecimal expectedAmount = (booking != null) ? booking.getTotalAmount() : null;
         BigDecimal shortageAmount = null;
         BigDecimal extraAmount = null;
 
-        if (booking != null && booking.getCheckInDate() != null && booking.getCheckOutDate() != null) {
-            long numberOfNights = ChronoUnit.DAYS.between(
-                    booking.getCheckInDate(),
-                    booking.getCheckOutDate()
-            );
-
-            if (numberOfNights > 0) {
-                BigDecimal pricePerNight = null;
-
-                if (booking.isApartmentBooking() && apartment != null) {
-                    pricePerNight = apartment.getPricePerNight();
-                } else if (booking.isRoomBooking() && room != null) {
-                    pricePerNight = room.getPricePerNight();
-                }
-
-                if (pricePerNight != null) {
-                    expectedAmount = pricePerNight.multiply(BigDecimal.valueOf(numberOfNights));
-
-                    if (payment.getAmount() != null && expectedAmount != null) {
-                        int comparison = payment.getAmount().compareTo(expectedAmount);
-
-                        if (comparison < 0) {
-                            shortageAmount = expectedAmount.subtract(payment.getAmount());
-                        } else if (comparison > 0) {
-                            extraAmount = payment.getAmount().subtract(expectedAmount);
-                        }
-                    }
-                }
+        if (expectedAmount != null && payment.getAmount() != null) {
+            int comparison = payment.getAmount().compareTo(expectedAmount);
+
+            if (comparison < 0) {
+                shortageAmount = expectedAmount.subtract(payment.getAmount());
+            } else if (comparison > 0) {
+                extraAmount = payment.getAmount().subtract(expectedAmount);
             }
         }
 
@@ -412,14 +374,14 @@ public class EntityDtoMapper {
                 (apartment != null) ? apartment.getName() : null,
                 (apartment != null) ? apartment.getImageUrl() : null,
                 (apartment != null) ? apartment.getTotalCapacity() : null,
-                (apartment != null) ? apartment.getPricePerNight() : null,
+                (apartment != null) ? booking.getPricePerNight() : null,
                 (apartment != null) ? apartment.getApartmentType() : null,
 
                 (room != null) ? room.getId() : null,
                 (room != null) ? room.getRoomNumber() : null,
                 (room != null) ? room.getImageUrl() : null,
                 (room != null) ? room.getCapacity() : null,
-                (room != null) ? room.getPricePerNight() : null,
+                (room != null) ? booking.getPricePerNight() : null,
                 (room != null) ? room.getRoomType() : null,
 
                 expectedAmount,
@@ -1,6 +1,8 @@
 package com.mostafa.hotel.model;
 
 import com.mostafa.hotel.base.BaseEntity;
+import com.mostafa.hotel.enums.Amenity;
+import com.mostafa.hotel.enums.ApartmentAmenity;
 import com.mostafa.hotel.enums.ApartmentType;
 import jakarta.persistence.*;
 import lombok.*;
@@ -57,23 +59,9 @@ public class Apartment extends BaseEntity<UUID> {
     private Boolean roomsBookableSeparately = false;
 
 
-    // Apartment -> ((True, False)) 🥰
-    @Column(name = "has_kitchen")
-    private Boolean hasKitchen = true;
-    @Column(name = "has_living_room")
-    private Boolean hasLivingRoom = true;
-    @Column(name = "has_dining_area")
-    private Boolean hasDiningArea = false;
-    @Column(name = "has_balcony")
-    private Boolean hasBalcony = false;
-    @Column(name = "has_wifi")
-    private Boolean hasWifi = true;
-    @Column(name = "has_air_conditioning")
-    private Boolean hasAirConditioning = true;
-    @Column(name = "has_parking")
-    private Boolean hasParking = false;
-    @Column(name = "has_laundry")
-    private Boolean hasLaundry = false;
+    // Apartment -> ((True, False)) 🥰 one bit per ApartmentAmenity, read and written through the hasXxx accessors below
+    @Column(name = "amenities", nullable = false)
+    private int amenities = Amenity.maskOf(ApartmentAmenity.KITCHEN, ApartmentAmenity.LIVING_ROOM, ApartmentAmenity.WIFI, ApartmentAmenity.AIR_CONDITIONING);
 
 
     @Enumerated(EnumType.STRING)
@@ -91,4 +79,115 @@ public class Apartment extends BaseEntity<UUID> {
 
     @OneToMany(mappedBy = "apartment", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Booking> apartmentBookings;
+
+
+    // ((Amenities)) -> Boolean view of the mask, so DTOs, mapper and index documents keep their hasXxx API
+    public Boolean getHasKitchen() {
+        return ApartmentAmenity.KITCHEN.in(amenities);
+    }
+
+    public void setHasKitchen(Boolean hasKitchen) {
+        amenities = ApartmentAmenity.KITCHEN.set(amenities, hasKitchen);
+    }
+
+    public Boolean getHasLivingRoom() {
+        return ApartmentAmenity.LIVING_ROOM.in(amenities);
+    }
+
+    public void setHasLivingRoom(Boolean hasLivingRoom) {
+        amenities = ApartmentAmenity.LIVING_ROOM.set(amenities, hasLivingRoom);
+    }
+
+    public Boolean getHasDiningArea() {
+        return ApartmentAmenity.DINING_AREA.in(amenities);
+    }
+
+    public void setHasDiningArea(Boolean hasDiningArea) {
+        amenities = ApartmentAmenity.DINING_AREA.set(amenities, hasDiningArea);
+    }
+
+    public Boolean getHasBalcony() {
+        return ApartmentAmenity.BALCONY.in(amenities);
+    }
+
+    public void setHasBalcony(Boolean hasBalcony) {
+        amenities = ApartmentAmenity.BALCONY.set(amenities, hasBalcony);
+    }
+
+    public Boolean getHasWifi() {
+        return ApartmentAmenity.WIFI.in(amenities);
+    }
+
+    public void setHasWifi(Boolean hasWifi) {
+        amenities = ApartmentAmenity.WIFI.set(amenities, hasWifi);
+    }
+
+    public Boolean getHasAirConditioning() {
+        return ApartmentAmenity.AIR_CONDITIONING.in(amenities);
+    }
+
+    public void setHasAirConditioning(Boolean hasAirConditioning) {
+        amenities = ApartmentAmenity.AIR_CONDITIONING.set(amenities, hasAirConditioning);
+    }
+
+    public Boolean getHasParking() {
+        return ApartmentAmenity.PARKING.in(amenities);
+    }
+
+    public void setHasParking(Boolean hasParking) {
+        amenities = ApartmentAmenity.PARKING.set(amenities, hasParking);
+    }
+
+    public Boolean getHasLaundry() {
+        return ApartmentAmenity.LAUNDRY.in(amenities);
+    }
+
+    public void setHasLaundry(Boolean hasLaundry) {
+        amenities = ApartmentAmenity.LAUNDRY.set(amenities, hasLaundry);
+    }
+
+    // Builder keeps .hasXxx(...) too; Lombok generates the rest of it
+    public static class ApartmentBuilder {
+        public ApartmentBuilder hasKitchen(Boolean hasKitchen) {
+            amenities = ApartmentAmenity.KITCHEN.set(amenities, hasKitchen);
+            return this;
+        }
+
+        public ApartmentBuilder hasLivingRoom(Boolean hasLivingRoom) {
+            amenities = ApartmentAmenity.LIVING_ROOM.set(amenities, hasLivingRoom);
+            return this;
+        }
+
+        public ApartmentBuilder hasDiningArea(Boolean hasDiningArea) {
+            amenities = ApartmentAmenity.DINING_AREA.set(amenities, hasDiningArea);
+            return this;
+        }
+
+        public ApartmentBuilder hasBalcony(Boolean hasBalcony) {
+            amenities = ApartmentAmenity.BALCONY.set(amenities, hasBalcony);
+            return this;
+        }
+
+        public ApartmentBuilder hasWifi(Boolean hasWifi) {
+            amenities = ApartmentAmenity.WIFI.set(amenities, hasWifi);
+            return this;
+        }
+
+        public ApartmentBuilder hasAirConditioning(Boolean hasAirConditioning) {
+            amenities = ApartmentAmenity.AIR_CONDITIONING.set(amenities, hasAirConditioning);
+            return this;
+        }
+
+        public ApartmentBuilder hasParking(Boolean hasParking) {
+            amenities = ApartmentAmenity.PARKING.set(amenities, hasParking);
+            return this;
+        }
+
+        public ApartmentBuilder hasLaundry(Boolean hasLaundry) {
+            amenities = ApartmentAmenity.LAUNDRY.set(amenities, hasLaundry);
+            return this;
+        }
+    }
+
+
 }
@@ -6,12 +6,21 @@ import com.mostafa.hotel.enums.BookingType;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.UUID;
 
 
 @Entity
 @Table(name = "bookings")
+// Everything EntityDtoMapper.toBookingResponseDTO touches -> load a page of bookings in one select
+@NamedEntityGraph(name = "Booking.details", attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode("hotel"),
+        @NamedAttributeNode("apartment"),
+        @NamedAttributeNode("room"),
+        @NamedAttributeNode("payment")
+})
 @Builder
 @Getter
 @Setter
@@ -27,6 +36,13 @@ public class Booking extends BaseEntity<UUID> {
     @Column(name = "number_of_guests", nullable = false)
     private Integer numberOfGuests;
 
+    // Price snapshot taken at creation -> later price edits on the unit don't change what this booking costs
+    @Column(name = "price_per_night", precision = 10, scale = 2)
+    private BigDecimal pricePerNight;
+
+    @Column(name = "total_amount", precision = 12, scale = 2)
+    private BigDecimal totalAmount;
+
 
     @Enumerated(EnumType.STRING)
     @Column(name = "booking_type", nullable = false)
@@ -1,6 +1,8 @@
 package com.mostafa.hotel.model;
 
 import com.mostafa.hotel.base.BaseEntity;
+import com.mostafa.hotel.enums.Amenity;
+import com.mostafa.hotel.enums.RoomAmenity;
 import com.mostafa.hotel.enums.RoomType;
 import jakarta.persistence.*;
 import lombok.*;
@@ -40,19 +42,9 @@ public class Room extends BaseEntity<UUID> {
     @Column(name = "bookable_individually")
     private Boolean bookableIndividually = true;
 
-    // Room -> ((True, False)) 🥰
-    @Column(name = "has_wifi")
-    private Boolean hasWifi = true;
-    @Column(name = "has_air_conditioning")
-    private Boolean hasAirConditioning = true;
-    @Column(name = "has_tv")
-    private Boolean hasTv = true;
-    @Column(name = "has_mini_bar")
-    private Boolean hasMiniBar = false;
-    @Column(name = "has_balcony")
-    private Boolean hasBalcony = false;
-    @Column(name = "has_private_bathroom")
-    private Boolean hasPrivateBathroom = true;
+    // Room -> ((True, False)) 🥰 one bit per RoomAmenity, read and written through the hasXxx accessors below
+    @Column(name = "amenities", nullable = false)
+    private int amenities = Amenity.maskOf(RoomAmenity.WIFI, RoomAmenity.AIR_CONDITIONING, RoomAmenity.TV, RoomAmenity.PRIVATE_BATHROOM);
 
 
     @Enumerated(EnumType.STRING)
@@ -84,4 +76,87 @@ public class Room extends BaseEntity<UUID> {
     }
 
 
+    // ((Amenities)) -> Boolean view of the mask, so DTOs, mapper and index documents keep their hasXxx API
+    public Boolean getHasWifi() {
+        return RoomAmenity.WIFI.in(amenities);
+    }
+
+    public void setHasWifi(Boolean hasWifi) {
+        amenities = RoomAmenity.WIFI.set(amenities, hasWifi);
+    }
+
+    public Boolean getHasAirConditioning() {
+        return RoomAmenity.AIR_CONDITIONING.in(amenities);
+    }
+
+    public void setHasAirConditioning(Boolean hasAirConditioning) {
+        amenities = RoomAmenity.AIR_CONDITIONING.set(amenities, hasAirConditioning);
+    }
+
+    public Boolean getHasTv() {
+        return RoomAmenity.TV.in(amenities);
+    }
+
+    public void setHasTv(Boolean hasTv) {
+        amenities = RoomAmenity.TV.set(amenities, hasTv);
+    }
+
+    public Boolean getHasMiniBar() {
+        return RoomAmenity.MINI_BAR.in(amenities);
+    }
+
+    public void setHasMiniBar(Boolean hasMiniBar) {
+        amenities = RoomAmenity.MINI_BAR.set(amenities, hasMiniBar);
+    }
+
+    public Boolean getHasBalcony() {
+        return RoomAmenity.BALCONY.in(amenities);
+    }
+
+    public void setHasBalcony(Boolean hasBalcony) {
+        amenities = RoomAmenity.BALCONY.set(amenities, hasBalcony);
+    }
+
+    public Boolean getHasPrivateBathroom() {
+        return RoomAmenity.PRIVATE_BATHROOM.in(amenities);
+    }
+
+    public void setHasPrivateBathroom(Boolean hasPrivateBathroom) {
+        amenities = RoomAmenity.PRIVATE_BATHROOM.set(amenities, hasPrivateBathroom);
+    }
+
+    // Builder keeps .hasXxx(...) too; Lombok generates the rest of it
+    public static class RoomBuilder {
+        public RoomBuilder hasWifi(Boolean hasWifi) {
+            amenities = RoomAmenity.WIFI.set(amenities, hasWifi);
+            return this;
+        }
+
+        public RoomBuilder hasAirConditioning(Boolean hasAirConditioning) {
+            amenities = RoomAmenity.AIR_CONDITIONING.set(amenities, hasAirConditioning);
+            return this;
+        }
+
+        public RoomBuilder hasTv(Boolean hasTv) {
+            amenities = RoomAmenity.TV.set(amenities, hasTv);
+            return this;
+        }
+
+        public RoomBuilder hasMiniBar(Boolean hasMiniBar) {
+            amenities = RoomAmenity.MINI_BAR.set(amenities, hasMiniBar);
+            return this;
+        }
+
+        public RoomBuilder hasBalcony(Boolean hasBalcony) {
+            amenities = RoomAmenity.BALCONY.set(amenities, hasBalcony);
+            return this;
+        }
+
+        public RoomBuilder hasPrivateBathroom(Boolean hasPrivateBathroom) {
+            amenities = RoomAmenity.PRIVATE_BATHROOM.set(amenities, hasPrivateBathroom);
+            return this;
+        }
+    }
+
+
 }
@@ -57,6 +57,10 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private UserRole role = UserRole.USER;
 
+    // Bumped to revoke every token issued so far (stateless auth compares it with the token's "ver" claim)
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion;
+
 
     @CreatedBy
     private String createdBy;
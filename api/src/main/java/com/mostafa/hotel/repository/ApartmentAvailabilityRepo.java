@@ -1,12 +1,15 @@
 package com.mostafa.hotel.repository;
 
+import com.mostafa.hotel.dto.availability.BlockedNightDTO;
 import com.mostafa.hotel.model.ApartmentAvailability;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 
@@ -19,5 +22,68 @@ public interface ApartmentAvailabilityRepo extends JpaRepository<ApartmentAvaila
             @Param("date") LocalDate date
     );
 
+    //     Check if any night in [checkIn, checkOut) is blocked for this apartment (single range query)
+    @Query("SELECT CASE WHEN COUNT(aa) > 0 THEN true ELSE false END FROM ApartmentAvailability aa " +
+            "WHERE aa.apartment.id = :apartmentId " +
+            "AND aa.isAvailable = false " +
+            "AND aa.date >= :checkIn AND aa.date < :checkOut")
+    boolean existsBlockedDateInRange(
+            @Param("apartmentId") UUID apartmentId,
+            @Param("checkIn") LocalDate checkIn,
+            @Param("checkOut") LocalDate checkOut
+    );
+
+    //     Dates in [checkIn, checkOut) that already have an availability row for this apartment
+    @Query("SELECT aa.date FROM ApartmentAvailability aa " +
+            "WHERE aa.apartment.id = :apartmentId " +
+            "AND aa.date >= :checkIn AND aa.date < :checkOut")
+    List<LocalDate> findExistingDatesInRange(
+            @Param("apartmentId") UUID apartmentId,
+            @Param("checkIn") LocalDate checkIn,
+            @Param("checkOut") LocalDate checkOut
+    );
+
+    //     Flip every existing availability row in [checkIn, checkOut) with one UPDATE
+    @Modifying
+    @Query("UPDATE ApartmentAvailability aa SET aa.isAvailable = :isAvailable, aa.lastModifiedDate = LOCAL DATETIME " +
+            "WHERE aa.apartment.id = :apartmentId " +
+            "AND aa.date >= :checkIn AND aa.date < :checkOut")
+    int updateAvailabilityInRange(
+            @Param("apartmentId") UUID apartmentId,
+            @Param("checkIn") LocalDate checkIn,
+            @Param("checkOut") LocalDate checkOut,
+            @Param("isAvailable") Boolean isAvailable
+    );
+
+    //     Every blocked night in [from, to) for all apartments -> used to load the availability index
+    @Query("SELECT new com.mostafa.hotel.dto.availability.BlockedNightDTO(aa.apartment.id, aa.date) " +
+            "FROM ApartmentAvailability aa " +
+            "WHERE aa.isAvailable = false " +
+            "AND aa.date >= :from AND aa.date < :to")
+    List<BlockedNightDTO> findBlockedNights(
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+
+    /*
+     * Night offsets (0 = :from) in [from, from + days) on which this apartment is taken
+     * -> overlapping non-cancelled booking or a blocked availability row, all in one query 🗓️
+     */
+    @Query(value = "SELECT CAST(d.n AS integer) FROM generate_series(0, :days - 1) AS d(n) " +
+            "WHERE EXISTS (SELECT 1 FROM bookings b WHERE b.apartment_id = :apartmentId " +
+            "AND b.status <> 'CANCELLED' " +
+            "AND b.check_in_date <= CAST(:from AS date) + d.n " +
+            "AND b.check_out_date > CAST(:from AS date) + d.n) " +
+            "OR EXISTS (SELECT 1 FROM apartment_availability aa WHERE aa.apartment_id = :apartmentId " +
+            "AND aa.is_available = false " +
+            "AND aa.date = CAST(:from AS date) + d.n) " +
+            "ORDER BY d.n",
+            nativeQuery = true)
+    List<Integer> findUnavailableNightOffsets(
+            @Param("apartmentId") UUID apartmentId,
+            @Param("from") LocalDate from,
+            @Param("days") int days
+    );
+
 
 }
@@ -1,14 +1,19 @@
 package com.mostafa.hotel.repository;
 
+import com.mostafa.hotel.dto.availability.BookedRangeDTO;
+import com.mostafa.hotel.enums.BookingStatus;
 import com.mostafa.hotel.model.Booking;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,16 +21,45 @@ import java.util.UUID;
 @Repository
 public interface BookingRepo extends JpaRepository<Booking, UUID> {
     //     Find all bookings by user ID
+    @EntityGraph("Booking.details")
     Page<Booking> findByUserId(@Param("userId") UUID userId, Pageable pageable);
 
-    // Find all bookings for a specific apartment
-    List<Booking> findByApartmentId(@Param("apartmentId") UUID apartmentId);
+    /*
+     * Booking history filters -> optional status + optional [from, to) stay window (overlap, not containment)
+     * (CAST gives Postgres a type for a null date parameter)
+     */
+    String HISTORY_FILTER =
+            "(:status IS NULL OR b.status = :status) AND " +
+            "(CAST(:from AS LocalDate) IS NULL OR b.checkOutDate > :from) AND " +
+            "(CAST(:to AS LocalDate) IS NULL OR b.checkInDate < :to)";
 
-    // Find all bookings for a specific room
-    List<Booking> findByRoomId(@Param("roomId") UUID roomId);
+    // Booking history for a specific apartment (Paginated) -> one fetch-joined select + one count per page
+    @EntityGraph("Booking.details")
+    @Query(value = "SELECT b FROM Booking b WHERE b.apartment.id = :apartmentId AND " + HISTORY_FILTER,
+            countQuery = "SELECT COUNT(b) FROM Booking b WHERE b.apartment.id = :apartmentId AND " + HISTORY_FILTER)
+    Page<Booking> findApartmentHistory(
+            @Param("apartmentId") UUID apartmentId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("status") BookingStatus status,
+            Pageable pageable
+    );
+
+    // Booking history for a specific room (Paginated) -> one fetch-joined select + one count per page
+    @EntityGraph("Booking.details")
+    @Query(value = "SELECT b FROM Booking b WHERE b.room.id = :roomId AND " + HISTORY_FILTER,
+            countQuery = "SELECT COUNT(b) FROM Booking b WHERE b.room.id = :roomId AND " + HISTORY_FILTER)
+    Page<Booking> findRoomHistory(
+            @Param("roomId") UUID roomId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("status") BookingStatus status,
+            Pageable pageable
+    );
 
 
     //   Find all bookings for a specific hotel
+    @EntityGraph("Booking.details")
     Page<Booking> findByHotelId(@Param("hotelId") UUID hotelId, Pageable pageable);
 
 
@@ -62,5 +96,39 @@ public interface BookingRepo extends JpaRepository<Booking, UUID> {
             @Param("checkOut") LocalDate checkOut
     );
 
+    //     Active (not cancelled) room bookings touching [from, to) -> used to load the availability index
+    @Query("SELECT new com.mostafa.hotel.dto.availability.BookedRangeDTO(r.id, b.checkInDate, b.checkOutDate) " +
+            "FROM Booking b JOIN b.room r " +
+            "WHERE b.status != 'CANCELLED' " +
+            "AND b.checkOutDate > :from AND b.checkInDate < :to")
+    List<BookedRangeDTO> findActiveRoomRanges(
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+
+    //     Active (not cancelled) apartment bookings touching [from, to) -> used to load the availability index
+    @Query("SELECT new com.mostafa.hotel.dto.availability.BookedRangeDTO(a.id, b.checkInDate, b.checkOutDate) " +
+            "FROM Booking b JOIN b.apartment a " +
+            "WHERE b.status != 'CANCELLED' " +
+            "AND b.checkOutDate > :from AND b.checkInDate < :to")
+    List<BookedRangeDTO> findActiveApartmentRanges(
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+
+    /*
+     * Keyset page of a user's bookings (newest first) -> rows strictly after (lastCreated, lastId), no COUNT query
+     * null lastCreated = first page; call with a Pageable sorted by createdDate DESC, id DESC
+     */
+    @EntityGraph("Booking.details")
+    @Query("SELECT b FROM Booking b WHERE b.user.id = :userId AND " +
+            "(CAST(:lastCreated AS LocalDateTime) IS NULL OR (b.createdDate <= :lastCreated AND (b.createdDate < :lastCreated OR b.id < :lastId)))")
+    Slice<Booking> findUserPageAfter(
+            @Param("userId") UUID userId,
+            @Param("lastCreated") LocalDateTime lastCreated,
+            @Param("lastId") UUID lastId,
+            Pageable pageable
+    );
+
 
 }
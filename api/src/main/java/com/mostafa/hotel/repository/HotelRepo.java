@@ -1,35 +1,95 @@
 package com.mostafa.hotel.repository;
 
 import com.mostafa.hotel.model.Hotel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 
 @Repository
-public interface HotelRepo extends JpaRepository<Hotel, UUID> {
+public interface HotelRepo extends JpaRepository<Hotel, UUID>, JpaSpecificationExecutor<Hotel> {
+    // Same expression as idx_hotels_search_trgm (V4 migration), change both together
+    String SEARCH_DOCUMENT = "lower(h.name || ' ' || h.city || ' ' || h.country)";
+
+
     //    Found or Not
     boolean existsByEmail(String email);
 
-    //     Advanced search with optional filters (Paginated)
+
+    /*
+     * Text search (pg_trgm) -> :q must already be lower-cased
+     * `<%` keeps hotels whose name/city/country contain a word close enough to :q (typos included)
+     * and is answered from the GIN index; best word_similarity first 🤞
+     */
+    @Query(value = "SELECT h.* FROM hotels h WHERE :q <% " + SEARCH_DOCUMENT + " " +
+            "ORDER BY word_similarity(:q, " + SEARCH_DOCUMENT + ") DESC, h.id",
+            countQuery = "SELECT count(*) FROM hotels h WHERE :q <% " + SEARCH_DOCUMENT,
+            nativeQuery = true)
+    Page<Hotel> searchByText(@Param("q") String q, Pageable pageable);
+
+
+    /*
+     * Occupancy grid source -> one row per (unit, overlapping booking), units with no booking still get one row
+     * Booking columns are night offsets from :from (NULL when the unit has no booking), ordered so each unit's rows are adjacent 🤞
+     * Streamed with a fetch size so the whole hotel is never held in memory at once.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(value = "SELECT 'ROOM' AS unit_type, r.id AS unit_id, r.room_number AS unit_number, " +
+            "b.check_in_date - CAST(:from AS date) AS first_night, " +
+            "b.check_out_date - CAST(:from AS date) AS end_night " +
+            "FROM rooms r " +
+            "LEFT JOIN bookings b ON b.room_id = r.id " +
+            "AND b.status <> 'CANCELLED' " +
+            "AND b.check_in_date < CAST(:to AS date) AND b.check_out_date > CAST(:from AS date) " +
+            "WHERE r.hotel_id = :hotelId " +
+            "UNION ALL " +
+            "SELECT 'APARTMENT', a.id, a.apartment_number, " +
+            "b.check_in_date - CAST(:from AS date), " +
+            "b.check_out_date - CAST(:from AS date) " +
+            "FROM apartments a " +
+            "LEFT JOIN bookings b ON b.apartment_id = a.id " +
+            "AND b.status <> 'CANCELLED' " +
+            "AND b.check_in_date < CAST(:to AS date) AND b.check_out_date > CAST(:from AS date) " +
+            "WHERE a.hotel_id = :hotelId " +
+            "ORDER BY unit_type DESC, unit_number, unit_id",
+            nativeQuery = true)
+    Stream<Object[]> streamOccupancy(
+            @Param("hotelId") UUID hotelId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+
+    /*
+     * Keyset page (newest first) -> rows strictly after (lastCreated, lastId), no COUNT query
+     * null lastCreated = first page; call with a Pageable sorted by createdDate DESC, id DESC
+     */
     @Query("SELECT h FROM Hotel h WHERE " +
-            "(:name IS NULL OR :name = '' OR LOWER(h.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
-            "(:city IS NULL OR :city = '' OR LOWER(h.city) LIKE LOWER(CONCAT('%', :city, '%'))) AND " +
-            "(:country IS NULL OR :country = '' OR LOWER(h.country) LIKE LOWER(CONCAT('%', :country, '%'))) AND " +
-            "(:phoneNumber IS NULL OR :phoneNumber = '' OR h.phoneNumber LIKE CONCAT('%', :phoneNumber, '%')) AND " +
-            "(:isActive IS NULL OR h.isActive = :isActive)")
-    Page<Hotel> advancedSearch(
-            @Param("name") String name,
-            @Param("city") String city,
-            @Param("country") String country,
-            @Param("phoneNumber") String phoneNumber,
-            @Param("isActive") Boolean isActive,
+            "(CAST(:lastCreated AS LocalDateTime) IS NULL OR (h.createdDate <= :lastCreated AND (h.createdDate < :lastCreated OR h.id < :lastId)))")
+    Slice<Hotel> findPageAfter(
+            @Param("lastCreated") LocalDateTime lastCreated,
+            @Param("lastId") UUID lastId,
             Pageable pageable
     );
 
+    //    Catalog index (Lucene) -> rebuild pages (id keyset) and search hits by id
+    Slice<Hotel> findAllByIdGreaterThan(UUID lastId, Pageable pageable);
+
+    List<Hotel> findAllByIdIn(Collection<UUID> ids);
+
+
 }
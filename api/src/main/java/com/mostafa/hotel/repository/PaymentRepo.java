@@ -3,14 +3,43 @@ package com.mostafa.hotel.repository;
 import com.mostafa.hotel.model.Payment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 
 @Repository
 public interface PaymentRepo extends JpaRepository<Payment, UUID> {
-    // Find all payments for ((Current-User))
-    Page<Payment> findByUserId(UUID userId, Pageable pageable);
+    // Find all payments for ((Current-User)) -> user, booking and booked unit fetched up front, count without joins
+    @EntityGraph(attributePaths = {"user", "booking", "booking.apartment", "booking.room"})
+    @Query(value = "SELECT p FROM Payment p WHERE p.user.id = :userId",
+            countQuery = "SELECT COUNT(p) FROM Payment p WHERE p.user.id = :userId")
+    Page<Payment> findByUserId(@Param("userId") UUID userId, Pageable pageable);
+
+    // Find all payments (ADMIN && MANAGER) -> same fetch plan as above
+    @EntityGraph(attributePaths = {"user", "booking", "booking.apartment", "booking.room"})
+    @Query(value = "SELECT p FROM Payment p",
+            countQuery = "SELECT COUNT(p) FROM Payment p")
+    Page<Payment> findAllWithDetails(Pageable pageable);
+
+    /*
+     * Keyset page (newest first) -> rows strictly after (lastCreated, lastId), no COUNT query
+     * null lastCreated = first page; call with a Pageable sorted by createdDate DESC, id DESC
+     */
+    @EntityGraph(attributePaths = {"user", "booking", "booking.apartment", "booking.room"})
+    @Query("SELECT p FROM Payment p WHERE " +
+            "(CAST(:lastCreated AS LocalDateTime) IS NULL OR (p.createdDate <= :lastCreated AND (p.createdDate < :lastCreated OR p.id < :lastId)))")
+    Slice<Payment> findPageAfter(
+            @Param("lastCreated") LocalDateTime lastCreated,
+            @Param("lastId") UUID lastId,
+            Pageable pageable
+    );
+
+
 }
@@ -1,12 +1,15 @@
 package com.mostafa.hotel.repository;
 
+import com.mostafa.hotel.dto.availability.BlockedNightDTO;
 import com.mostafa.hotel.model.RoomAvailability;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 
@@ -19,5 +22,68 @@ public interface RoomAvailabilityRepo extends JpaRepository<RoomAvailability, UU
             @Param("date") LocalDate date
     );
 
+    //     Check if any night in [checkIn, checkOut) is blocked for this room (single range query)
+    @Query("SELECT CASE WHEN COUNT(ra) > 0 THEN true ELSE false END FROM RoomAvailability ra " +
+            "WHERE ra.room.id = :roomId " +
+            "AND ra.isAvailable = false " +
+            "AND ra.date >= :checkIn AND ra.date < :checkOut")
+    boolean existsBlockedDateInRange(
+            @Param("roomId") UUID roomId,
+            @Param("checkIn") LocalDate checkIn,
+            @Param("checkOut") LocalDate checkOut
+    );
+
+    //     Dates in [checkIn, checkOut) that already have an availability row for this room
+    @Query("SELECT ra.date FROM RoomAvailability ra " +
+            "WHERE ra.room.id = :roomId " +
+            "AND ra.date >= :checkIn AND ra.date < :checkOut")
+    List<LocalDate> findExistingDatesInRange(
+            @Param("roomId") UUID roomId,
+            @Param("checkIn") LocalDate checkIn,
+            @Param("checkOut") LocalDate checkOut
+    );
+
+    //     Flip every existing availability row in [checkIn, checkOut) with one UPDATE
+    @Modifying
+    @Query("UPDATE RoomAvailability ra SET ra.isAvailable = :isAvailable, ra.lastModifiedDate = LOCAL DATETIME " +
+            "WHERE ra.room.id = :roomId " +
+            "AND ra.date >= :checkIn AND ra.date < :checkOut")
+    int updateAvailabilityInRange(
+            @Param("roomId") UUID roomId,
+            @Param("checkIn") LocalDate checkIn,
+            @Param("checkOut") LocalDate checkOut,
+            @Param("isAvailable") Boolean isAvailable
+    );
+
+    //     Every blocked night in [from, to) for all rooms -> used to load the availability index
+    @Query("SELECT new com.mostafa.hotel.dto.availability.BlockedNightDTO(ra.room.id, ra.date) " +
+            "FROM RoomAvailability ra " +
+            "WHERE ra.isAvailable = false " +
+            "AND ra.date >= :from AND ra.date < :to")
+    List<BlockedNightDTO> findBlockedNights(
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+
+    /*
+     * Night offsets (0 = :from) in [from, from + days) on which this room is taken
+     * -> overlapping non-cancelled booking or a blocked availability row, all in one query 🗓️
+     */
+    @Query(value = "SELECT CAST(d.n AS integer) FROM generate_series(0, :days - 1) AS d(n) " +
+            "WHERE EXISTS (SELECT 1 FROM bookings b WHERE b.room_id = :roomId " +
+            "AND b.status <> 'CANCELLED' " +
+            "AND b.check_in_date <= CAST(:from AS date) + d.n " +
+            "AND b.check_out_date > CAST(:from AS date) + d.n) " +
+            "OR EXISTS (SELECT 1 FROM room_availability ra WHERE ra.room_id = :roomId " +
+            "AND ra.is_available = false " +
+            "AND ra.date = CAST(:from AS date) + d.n) " +
+            "ORDER BY d.n",
+            nativeQuery = true)
+    List<Integer> findUnavailableNightOffsets(
+            @Param("roomId") UUID roomId,
+            @Param("from") LocalDate from,
+            @Param("days") int days
+    );
+
 
 }
@@ -0,0 +1,18 @@
+package com.mostafa.hotel.repository;
+
+import com.mostafa.hotel.enums.RoomType;
+import com.mostafa.hotel.model.Room;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Map;
+
+
+// Facet counts of a room search (RoomRepo fragment, see RoomFacetRepoImpl)
+public interface RoomFacetRepo {
+    /*
+     * roomType / amenities / city / pricePerNight (PriceBand labels) -> counts over every room matching
+     * spec + roomType + city, except that roomType and city are each counted without their own filter
+     * (a selected type or city still lists the others). spec must not filter on either of them.
+     */
+    Map<String, Map<String, Long>> countFacets(Specification<Room> spec, RoomType roomType, String city);
+}
@@ -0,0 +1,114 @@
+package com.mostafa.hotel.repository;
+
+import com.mostafa.hotel.enums.PriceBand;
+import com.mostafa.hotel.enums.RoomAmenity;
+import com.mostafa.hotel.enums.RoomType;
+import com.mostafa.hotel.model.Room;
+import com.mostafa.hotel.utils.FacetCounts;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+
+/*
+ * All facets in one grouped aggregate 🧮
+ *   SELECT room_type, city, count(*), sum(CASE WHEN amenities & 1 <> 0 THEN 1 ELSE 0 END), ..., sum(CASE WHEN <price band> ...)
+ *   FROM rooms JOIN hotels WHERE <spec> GROUP BY room_type, city
+ * One row per (type, city) pair; the rows are added up per dimension here. The room type and city
+ * filters stay out of the WHERE and are applied to the group keys instead, so each of the two is
+ * counted over the rows the other filters keep (the rest over rows matching both).
+ */
+class RoomFacetRepoImpl implements RoomFacetRepo {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+
+    @Override
+    public Map<String, Map<String, Long>> countFacets(Specification<Room> spec, RoomType roomType, String city) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Room> r = query.from(Room.class);
+
+        Path<RoomType> type = r.get("roomType");
+        Path<String> hotelCity = r.join("hotel", JoinType.LEFT).get("city");
+        Path<Integer> amenities = r.get("amenities");
+        Path<BigDecimal> price = r.get("pricePerNight");
+
+        List<Selection<?>> selections = new ArrayList<>(List.of(type, hotelCity, cb.count(r)));
+        for (RoomAmenity amenity : RoomAmenity.values()) {
+            selections.add(countWhere(cb,
+                    cb.notEqual(cb.function("bitand", Integer.class, amenities, cb.literal(amenity.bit())), 0)));
+        }
+        for (PriceBand band : PriceBand.values()) {
+            selections.add(countWhere(cb, inBand(cb, price, band)));
+        }
+
+        Predicate filters = spec.toPredicate(r, query, cb);
+        if (filters != null) {
+            query.where(filters);
+        }
+        query.multiselect(selections).groupBy(type, hotelCity);
+
+        FacetCounts facets = new FacetCounts("roomType", "amenities", "city", "pricePerNight");
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            boolean typeMatches = roomType == null || roomType == row.get(0);
+            boolean cityMatches = city == null || city.isEmpty()
+                    || (row.get(1) != null && row.get(1, String.class).toLowerCase().equals(city.toLowerCase()));
+
+            long rooms = row.get(2, Long.class);
+            if (cityMatches) {
+                facets.add("roomType", row.get(0), rooms);
+            }
+            if (typeMatches) {
+                facets.add("city", row.get(1), rooms);
+            }
+            if (!typeMatches || !cityMatches) {
+                continue;
+            }
+
+            int column = 3;
+            for (RoomAmenity amenity : RoomAmenity.values()) {
+                facets.add("amenities", amenity.field(), row.get(column++, Long.class));
+            }
+            for (PriceBand band : PriceBand.values()) {
+                facets.add("pricePerNight", band.label(), row.get(column++, Long.class));
+            }
+        }
+        return facets.toMap();
+    }
+
+
+    // ==================== PRIVATE HELPER METHODS ====================
+    // sum(CASE WHEN condition THEN 1 ELSE 0 END) -> a NULL price counts as no match
+    private static Expression<Long> countWhere(CriteriaBuilder cb, Expression<Boolean> condition) {
+        return cb.sumAsLong(cb.<Integer>selectCase().when(condition, 1).otherwise(0));
+    }
+
+    private static Predicate inBand(CriteriaBuilder cb, Path<BigDecimal> price, PriceBand band) {
+        List<Predicate> bounds = new ArrayList<>();
+        if (band.min() != null) {
+            bounds.add(cb.greaterThanOrEqualTo(price, band.min()));
+        }
+        if (band.max() != null) {
+            bounds.add(cb.lessThan(price, band.max()));
+        }
+        return cb.and(bounds.toArray(Predicate[]::new));
+    }
+
+
+}
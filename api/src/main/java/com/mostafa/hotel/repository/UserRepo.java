@@ -1,9 +1,15 @@
 package com.mostafa.hotel.repository;
 
 import com.mostafa.hotel.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,4 +18,26 @@ import java.util.UUID;
 public interface UserRepo extends JpaRepository<User, UUID> {
     //    Get User By ((email))
     Optional<User> findByEmail(String email);
+
+    //    Revocation version of the user's tokens (stateless auth, see TokenVersions)
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :userId")
+    Optional<Integer> findTokenVersion(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.id = :userId")
+    int incrementTokenVersion(@Param("userId") UUID userId);
+
+    /*
+     * Keyset page (newest first) -> rows strictly after (lastCreated, lastId), no COUNT query
+     * null lastCreated = first page; call with a Pageable sorted by createdDate DESC, id DESC
+     */
+    @Query("SELECT u FROM User u WHERE " +
+            "(CAST(:lastCreated AS LocalDateTime) IS NULL OR (u.createdDate <= :lastCreated AND (u.createdDate < :lastCreated OR u.id < :lastId)))")
+    Slice<User> findPageAfter(
+            @Param("lastCreated") LocalDateTime lastCreated,
+            @Param("lastId") UUID lastId,
+            Pageable pageable
+    );
+
+
 }
@@ -0,0 +1,244 @@
+package com.mostafa.hotel.search;
+
+import com.mostafa.hotel.enums.Amenity;
+import com.mostafa.hotel.enums.ApartmentAmenity;
+import com.mostafa.hotel.enums.PriceBand;
+import com.mostafa.hotel.enums.RoomAmenity;
+import com.mostafa.hotel.model.Apartment;
+import com.mostafa.hotel.model.Hotel;
+import com.mostafa.hotel.model.Room;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.facet.FacetsConfig;
+import org.apache.lucene.facet.range.LongRange;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetField;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.util.BytesRef;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+
+/*
+ * Entity -> Lucene document for the catalog index 📇
+ * Field names are the entity attribute names, so CatalogQuery filters and Pageable sorts use the
+ * same names as the JPA specifications. Encoding per value type:
+ *   String  -> lower-cased keyword (contains / equal) + raw sorted doc values (sort)
+ *   Enum    -> keyword + sorted doc values + facet
+ *   Boolean -> "true"/"false" keyword; null is not indexed, so it matches neither (like SQL)
+ *   Amenity mask -> one Boolean per bit, under the hasXxx name
+ *   Number  -> long point + numeric doc values, scaled by 100 so prices and areas keep their cents
+ */
+final class CatalogDocuments {
+    static final String KIND = "kind";
+    static final String ID = "id";
+    static final String KEY = "key";
+    static final String HOTEL_ID = "hotelId";
+    static final String APARTMENT_ID = "apartmentId";
+    static final String CITY = "city";
+    static final String AMENITIES = "amenities";
+
+    static final String PRICE = "pricePerNight";
+
+    static final FacetsConfig FACETS = new FacetsConfig();
+
+    static {
+        FACETS.setMultiValued(AMENITIES, true);
+    }
+
+    // Everything a Pageable may sort on; anything else falls back to JPA
+    static final Map<String, SortField.Type> SORTABLE = Map.ofEntries(
+            Map.entry("name", SortField.Type.STRING),
+            Map.entry("city", SortField.Type.STRING),
+            Map.entry("country", SortField.Type.STRING),
+            Map.entry("roomNumber", SortField.Type.STRING),
+            Map.entry("apartmentNumber", SortField.Type.STRING),
+            Map.entry("roomType", SortField.Type.STRING),
+            Map.entry("apartmentType", SortField.Type.STRING),
+            Map.entry("pricePerNight", SortField.Type.LONG),
+            Map.entry("capacity", SortField.Type.LONG),
+            Map.entry("totalCapacity", SortField.Type.LONG),
+            Map.entry("numberOfBedrooms", SortField.Type.LONG),
+            Map.entry("numberOfBathrooms", SortField.Type.LONG),
+            Map.entry("floorNumber", SortField.Type.LONG),
+            Map.entry("areaSqm", SortField.Type.LONG),
+            Map.entry("rating", SortField.Type.LONG),
+            Map.entry("createdDate", SortField.Type.LONG)
+    );
+
+    // Range facets -> PriceBand buckets on the x100 price, [min, max)
+    static final LongRange[] PRICE_BANDS = Arrays.stream(PriceBand.values())
+            .map(band -> new LongRange(band.label(),
+                    band.min() == null ? Long.MIN_VALUE : scaled(band.min(), RoundingMode.UNNECESSARY), true,
+                    band.max() == null ? Long.MAX_VALUE : scaled(band.max(), RoundingMode.UNNECESSARY), band.max() == null))
+            .toArray(LongRange[]::new);
+
+    private CatalogDocuments() {
+    }
+
+
+    static Document hotel(Hotel hotel) {
+        Document doc = base(CatalogKind.HOTEL, hotel.getId(), hotel.getId());
+        keyword(doc, "name", hotel.getName());
+        keyword(doc, "country", hotel.getCountry());
+        exactKeyword(doc, "phoneNumber", hotel.getPhoneNumber());
+        flag(doc, "isActive", hotel.getIsActive());
+        number(doc, "rating", hotel.getRating());
+        city(doc, hotel);
+        created(doc, hotel.getCreatedDate());
+
+        return build(doc);
+    }
+
+    static Document apartment(Apartment apartment) {
+        Hotel hotel = apartment.getHotel();
+        Document doc = base(CatalogKind.APARTMENT, apartment.getId(), hotel == null ? null : hotel.getId());
+        keyword(doc, "apartmentNumber", apartment.getApartmentNumber());
+        keyword(doc, "name", apartment.getName());
+        category(doc, "apartmentType", apartment.getApartmentType());
+        number(doc, PRICE, apartment.getPricePerNight());
+        number(doc, "totalCapacity", apartment.getTotalCapacity());
+        number(doc, "numberOfBedrooms", apartment.getNumberOfBedrooms());
+        number(doc, "numberOfBathrooms", apartment.getNumberOfBathrooms());
+        number(doc, "floorNumber", apartment.getFloorNumber());
+        number(doc, "areaSqm", apartment.getAreaSqm());
+        flag(doc, "isAvailable", apartment.getIsAvailable());
+        flag(doc, "roomsBookableSeparately", apartment.getRoomsBookableSeparately());
+        amenities(doc, ApartmentAmenity.values(), apartment.getAmenities());
+        city(doc, hotel);
+        created(doc, apartment.getCreatedDate());
+
+        return build(doc);
+    }
+
+    static Document room(Room room) {
+        Hotel hotel = room.getHotel();
+        Document doc = base(CatalogKind.ROOM, room.getId(), hotel == null ? null : hotel.getId());
+        if (room.getApartment() != null) {
+            doc.add(new StringField(APARTMENT_ID, room.getApartment().getId().toString(), Field.Store.NO));
+        }
+        keyword(doc, "roomNumber", room.getRoomNumber());
+        category(doc, "roomType", room.getRoomType());
+        number(doc, PRICE, room.getPricePerNight());
+        number(doc, "capacity", room.getCapacity());
+        flag(doc, "isAvailable", room.getIsAvailable());
+        flag(doc, "bookableIndividually", room.getBookableIndividually());
+        amenities(doc, RoomAmenity.values(), room.getAmenities());
+        city(doc, hotel);
+        created(doc, room.getCreatedDate());
+
+        return build(doc);
+    }
+
+    // Unique per document -> updateDocument / deleteDocuments target
+    static Term key(CatalogKind kind, UUID id) {
+        return new Term(KEY, kind + ":" + id);
+    }
+
+    static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    // Numbers are stored x100; filter bounds round inwards (min up, max down) like the SQL comparison would
+    static long scaled(Number value, RoundingMode rounding) {
+        BigDecimal decimal = value instanceof BigDecimal d ? d : BigDecimal.valueOf(value.longValue());
+        return decimal.movePointRight(2).setScale(0, rounding).longValueExact();
+    }
+
+
+    // ==================== PRIVATE HELPER METHODS ====================
+    private static Document base(CatalogKind kind, UUID id, UUID hotelId) {
+        Document doc = new Document();
+        doc.add(new StringField(KIND, kind.name(), Field.Store.NO));
+        doc.add(new StringField(KEY, key(kind, id).text(), Field.Store.NO));
+        doc.add(new StringField(ID, id.toString(), Field.Store.YES));
+        doc.add(new SortedDocValuesField(ID, new BytesRef(id.toString())));
+        if (hotelId != null) {
+            doc.add(new StringField(HOTEL_ID, hotelId.toString(), Field.Store.NO));
+        }
+        return doc;
+    }
+
+    private static void keyword(Document doc, String field, String value) {
+        if (value != null) {
+            doc.add(new StringField(field, normalize(value), Field.Store.NO));
+            doc.add(new SortedDocValuesField(field, new BytesRef(value)));
+        }
+    }
+
+    // Case-sensitive keyword (Filters.containsExact counterpart)
+    private static void exactKeyword(Document doc, String field, String value) {
+        if (value != null) {
+            doc.add(new StringField(field, value, Field.Store.NO));
+        }
+    }
+
+    private static void category(Document doc, String field, Enum<?> value) {
+        if (value != null) {
+            doc.add(new StringField(field, value.name(), Field.Store.NO));
+            doc.add(new SortedDocValuesField(field, new BytesRef(value.name())));
+            doc.add(new SortedSetDocValuesFacetField(field, value.name()));
+        }
+    }
+
+    private static void flag(Document doc, String field, Boolean value) {
+        if (value != null) {
+            doc.add(new StringField(field, value.toString(), Field.Store.NO));
+        }
+    }
+
+    // One flag per amenity bit; the set ones also count towards the multi-valued "amenities" facet
+    private static void amenities(Document doc, Amenity[] amenities, int mask) {
+        for (Amenity amenity : amenities) {
+            flag(doc, amenity.field(), amenity.in(mask));
+            if (amenity.in(mask)) {
+                doc.add(new SortedSetDocValuesFacetField(AMENITIES, amenity.field()));
+            }
+        }
+    }
+
+    private static void number(Document doc, String field, Number value) {
+        if (value != null) {
+            long scaled = scaled(value, RoundingMode.HALF_UP);
+            doc.add(new LongPoint(field, scaled));
+            doc.add(new NumericDocValuesField(field, scaled));
+        }
+    }
+
+    // Units inherit their hotel's city (filter + facet)
+    private static void city(Document doc, Hotel hotel) {
+        if (hotel != null && hotel.getCity() != null) {
+            keyword(doc, CITY, hotel.getCity());
+            doc.add(new SortedSetDocValuesFacetField(CITY, hotel.getCity()));
+        }
+    }
+
+    private static void created(Document doc, LocalDateTime createdDate) {
+        if (createdDate != null) {
+            doc.add(new NumericDocValuesField("createdDate", createdDate.toInstant(ZoneOffset.UTC).toEpochMilli()));
+        }
+    }
+
+    private static Document build(Document doc) {
+        try {
+            return FACETS.build(doc);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+}
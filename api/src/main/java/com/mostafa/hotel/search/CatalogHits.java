@@ -0,0 +1,29 @@
+package com.mostafa.hotel.search;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+
+/*
+ * One page of catalog index hits -> ids in sort order plus the exact total
+ * (and the facet counts, when the query asked for them; null otherwise).
+ * The entities themselves are loaded from the database by id, so responses never show stale columns.
+ */
+public record CatalogHits(List<UUID> ids, long total, Map<String, Map<String, Long>> facets) {
+
+    public CatalogHits(List<UUID> ids, long total) {
+        this(ids, total, null);
+    }
+
+    // Entities loaded by id, put back into hit order (rows deleted since they were indexed are skipped)
+    public <T> List<T> inHitOrder(Collection<T> entities, Function<T, UUID> idOf) {
+        Map<UUID, T> byId = entities.stream().collect(Collectors.toMap(idOf, Function.identity()));
+
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+}
@@ -0,0 +1,464 @@
+package com.mostafa.hotel.search;
+
+import com.mostafa.hotel.base.BaseEntity;
+import com.mostafa.hotel.repository.ApartmentRepo;
+import com.mostafa.hotel.repository.HotelRepo;
+import com.mostafa.hotel.repository.RoomRepo;
+import com.mostafa.hotel.utils.FacetCounts;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.facet.FacetResult;
+import org.apache.lucene.facet.Facets;
+import org.apache.lucene.facet.FacetsCollector;
+import org.apache.lucene.facet.FacetsCollectorManager;
+import org.apache.lucene.facet.LabelAndValue;
+import org.apache.lucene.facet.range.LongRangeFacetCounts;
+import org.apache.lucene.facet.sortedset.DefaultSortedSetDocValuesReaderState;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetCounts;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesReaderState;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MultiCollectorManager;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TopFieldCollectorManager;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+
+/*
+ * Embedded Lucene index of the catalog (hotels, apartments, rooms) on local disk 🔎
+ * Off unless catalog.search.lucene.enabled=true. While it is off, or not built yet, search() returns
+ * empty and the services run their JPA specifications instead.
+ *
+ * Rebuilt from the database in the background at startup (catalog.index.rebuild.* metrics show
+ * progress and duration) and kept current by the create/update/delete paths of the Hotel, Apartment
+ * and Room services: they hand over the changed id, and the document is re-read and written once the
+ * transaction commits, so rolled-back changes never reach the index. Writes are searchable right away
+ * (near-real-time reader) and committed to disk on a schedule and at shutdown.
+ * Changes committed while a rebuild runs are queued and applied once it finishes -> the request
+ * that made them never waits for the rebuild.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogIndex {
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final HotelRepo hotelRepo;
+    private final ApartmentRepo apartmentRepo;
+    private final RoomRepo roomRepo;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${catalog.search.lucene.enabled:false}")
+    private boolean enabled;
+
+    @Value("${catalog.search.lucene.path:${java.io.tmpdir}/hotel-catalog-index}")
+    private String path;
+
+    @Value("${catalog.search.lucene.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    @Value("${catalog.search.lucene.batch-size:500}")
+    private int batchSize;
+
+    // Rebuild holds the write side; updates that can't get the read side wait in pendingChanges instead
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    private final Queue<Runnable> pendingChanges = new ConcurrentLinkedQueue<>();
+    private final AtomicLong rebuildProgress = new AtomicLong();
+    private Directory directory;
+    private volatile IndexWriter writer;
+    private volatile SearcherManager searcherManager;
+    private TransactionTemplate readTransaction;
+    private volatile boolean ready;
+    private volatile SortedSetDocValuesReaderState facetState;
+
+
+    @PostConstruct
+    void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        directory = FSDirectory.open(Path.of(path));
+        openWriter();
+
+        // Index changes run after the caller's commit -> their reads need a transaction of their own
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readTransaction.setReadOnly(true);
+
+        // An index left on disk by the last run is served as-is when startup rebuilds are turned off
+        ready = !rebuildOnStartup && writer.getDocStats().numDocs > 0;
+
+        Gauge.builder("catalog.index.rebuild.progress", rebuildProgress, AtomicLong::get)
+                .description("Documents written by the running (or last) catalog index rebuild")
+                .register(meterRegistry);
+        // Reads the field each time -> follows the writer reopened after a failed rebuild
+        Gauge.builder("catalog.index.documents", this, index -> index.writer.getDocStats().numDocs)
+                .description("Documents in the catalog index")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        if (writer != null) {
+            commit();
+            searcherManager.close();
+            writer.close();
+            directory.close();
+        }
+    }
+
+    // Startup build runs on its own thread -> the app serves (from JPA) while it catches up
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (enabled && !ready) {
+            Thread rebuilder = new Thread(this::rebuild, "catalog-index-rebuild");
+            rebuilder.setDaemon(true);
+            rebuilder.start();
+        }
+    }
+
+    // Full reload from the database (also on catalog.search.lucene.rebuild-cron, off by default)
+    @Scheduled(cron = "${catalog.search.lucene.rebuild-cron:-}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        rebuildLock.writeLock().lock();
+        try {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            rebuildProgress.set(0);
+
+            // Last commit = the index as it was before this rebuild -> what a failure rolls back to
+            writer.commit();
+            writer.deleteAll();
+            addAll(hotelRepo::findAllByIdGreaterThan, CatalogDocuments::hotel);
+            addAll(apartmentRepo::findAllByIdGreaterThan, CatalogDocuments::apartment);
+            addAll(roomRepo::findAllByIdGreaterThan, CatalogDocuments::room);
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            ready = true;
+
+            sample.stop(meterRegistry.timer("catalog.index.rebuild"));
+        } catch (IOException | RuntimeException e) {
+            // Half-built index -> back to JPA until a rebuild succeeds, and never commit the partial work
+            ready = false;
+            meterRegistry.counter("catalog.index.rebuild.failures").increment();
+            discardPartialRebuild(e);
+            throw e instanceof IOException io ? new UncheckedIOException(io) : (RuntimeException) e;
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+        applyPendingChanges();
+    }
+
+    // Skipped while a rebuild runs -> its half-built index is only ever committed by the rebuild itself
+    @Scheduled(fixedDelayString = "${catalog.search.lucene.commit-interval:PT1M}")
+    public void commit() throws IOException {
+        if (!enabled || !rebuildLock.readLock().tryLock()) {
+            return;
+        }
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /*
+     * One page of ids matching the query, in the Pageable's sort order (id breaks ties)
+     * plus the query's facet counts, collected in the same pass over the hits.
+     * Empty -> index off / not built, or a sort field the index doesn't carry: run the JPA search instead.
+     */
+    public Optional<CatalogHits> search(CatalogQuery query, Pageable pageable) {
+        Sort sort = toLuceneSort(pageable.getSort());
+        if (!ready || sort == null) {
+            return Optional.empty();
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                int window = Math.toIntExact(pageable.getOffset() + pageable.getPageSize());
+                TopFieldCollectorManager topHits = new TopFieldCollectorManager(sort, window, null, Integer.MAX_VALUE);
+
+                TopFieldDocs top;
+                Map<String, Map<String, Long>> facets = null;
+                if (query.facets().isEmpty()) {
+                    top = searcher.search(query.toQuery(), topHits);
+                } else {
+                    Object[] results = searcher.search(query.toQuery(),
+                            new MultiCollectorManager(topHits, new FacetsCollectorManager()));
+                    top = (TopFieldDocs) results[0];
+                    facets = countFacets(searcher, (FacetsCollector) results[1], query);
+                }
+
+                StoredFields storedFields = searcher.storedFields();
+                List<UUID> ids = new ArrayList<>();
+                for (int i = (int) pageable.getOffset(); i < top.scoreDocs.length; i++) {
+                    Document doc = storedFields.document(top.scoreDocs[i].doc, Set.of(CatalogDocuments.ID));
+                    ids.add(UUID.fromString(doc.get(CatalogDocuments.ID)));
+                }
+
+                return Optional.of(new CatalogHits(ids, top.totalHits.value, facets));
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    // ***************************** ((Incremental-Updates)) *********************** //
+    // A hotel's city is copied onto its units -> re-index them with it
+    public void hotelSaved(UUID hotelId) {
+        afterCommit(() -> {
+            hotelRepo.findById(hotelId).ifPresent(hotel -> upsert(CatalogKind.HOTEL, hotelId, CatalogDocuments.hotel(hotel)));
+            apartmentRepo.findAllByHotelId(hotelId)
+                    .forEach(apartment -> upsert(CatalogKind.APARTMENT, apartment.getId(), CatalogDocuments.apartment(apartment)));
+            roomRepo.findAllByHotelId(hotelId)
+                    .forEach(room -> upsert(CatalogKind.ROOM, room.getId(), CatalogDocuments.room(room)));
+        });
+    }
+
+    // Hotel, apartments and rooms go together (cascade)
+    public void hotelDeleted(UUID hotelId) {
+        afterCommit(() -> delete(new Term(CatalogDocuments.HOTEL_ID, hotelId.toString())));
+    }
+
+    public void apartmentSaved(UUID apartmentId) {
+        afterCommit(() -> apartmentRepo.findAllByIdIn(List.of(apartmentId))
+                .forEach(apartment -> upsert(CatalogKind.APARTMENT, apartmentId, CatalogDocuments.apartment(apartment))));
+    }
+
+    // The apartment's rooms are deleted with it (cascade)
+    public void apartmentDeleted(UUID apartmentId) {
+        afterCommit(() -> delete(
+                CatalogDocuments.key(CatalogKind.APARTMENT, apartmentId),
+                new Term(CatalogDocuments.APARTMENT_ID, apartmentId.toString())));
+    }
+
+    public void roomSaved(UUID roomId) {
+        afterCommit(() -> roomRepo.findAllByIdIn(List.of(roomId))
+                .forEach(room -> upsert(CatalogKind.ROOM, roomId, CatalogDocuments.room(room))));
+    }
+
+    public void roomDeleted(UUID roomId) {
+        afterCommit(() -> delete(CatalogDocuments.key(CatalogKind.ROOM, roomId)));
+    }
+
+
+    // ==================== PRIVATE HELPER METHODS ====================
+    private void openWriter() throws IOException {
+        // close() commits through commit() -> never implicitly, mid-rebuild
+        writer = new IndexWriter(directory, new IndexWriterConfig()
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+                .setCommitOnClose(false));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    /*
+     * rollback() drops everything since the last commit (deleteAll + the partial adds) and closes the
+     * writer -> reopen writer and reader on the last committed index, so neither the scheduled commit
+     * nor close() can persist the half-built one.
+     */
+    private void discardPartialRebuild(Exception failure) {
+        try {
+            searcherManager.close();
+            writer.rollback();
+            openWriter();
+        } catch (IOException | RuntimeException e) {
+            failure.addSuppressed(e);
+        }
+    }
+    // Keyset over id -> rows inserted or deleted during the rebuild can't shift later batches
+    private <T extends BaseEntity<UUID>> void addAll(BiFunction<UUID, Pageable, Slice<T>> batchAfter,
+                                                     Function<T, Document> toDocument) throws IOException {
+        Pageable firstBatch = PageRequest.of(0, batchSize, org.springframework.data.domain.Sort.by("id"));
+        UUID lastId = FIRST_ID;
+        Slice<T> batch;
+        do {
+            batch = batchAfter.apply(lastId, firstBatch);
+            for (T entity : batch) {
+                writer.addDocument(toDocument.apply(entity));
+                rebuildProgress.incrementAndGet();
+                lastId = entity.getId();
+            }
+        } while (batch.hasNext());
+    }
+
+    /*
+     * A dimension the query narrows to one value (roomType, city) is counted sideways: over a second
+     * pass without its own filter, so the values the user could switch to are still listed.
+     */
+    private Map<String, Map<String, Long>> countFacets(IndexSearcher searcher, FacetsCollector hits,
+                                                       CatalogQuery query) throws IOException {
+        Facets byValue = new SortedSetDocValuesFacetCounts(facetState(searcher), hits);
+        Facets byPrice = new LongRangeFacetCounts(CatalogDocuments.PRICE, hits, CatalogDocuments.PRICE_BANDS);
+
+        List<String> dimensions = query.facets();
+        FacetCounts counts = new FacetCounts(dimensions.toArray(String[]::new));
+        for (String dimension : dimensions) {
+            FacetResult result;
+            if (dimension.equals(CatalogDocuments.PRICE)) {
+                result = byPrice.getAllChildren(dimension);
+            } else if (query.filtersOn(dimension)) {
+                FacetsCollector sideways = searcher.search(query.toQueryWithout(dimension), new FacetsCollectorManager());
+                result = new SortedSetDocValuesFacetCounts(facetState(searcher), sideways).getAllChildren(dimension);
+            } else {
+                result = byValue.getAllChildren(dimension);
+            }
+            // null -> no indexed document has this dimension at all
+            if (result != null) {
+                for (LabelAndValue value : result.labelValues) {
+                    counts.add(dimension, value.label, value.value.longValue());
+                }
+            }
+        }
+        return counts.toMap();
+    }
+
+    // Ordinal map of the facet field -> built once per reader, not per search (it's the expensive part)
+    private SortedSetDocValuesReaderState facetState(IndexSearcher searcher) throws IOException {
+        SortedSetDocValuesReaderState state = facetState;
+        if (state == null || state.getReader() != searcher.getIndexReader()) {
+            state = new DefaultSortedSetDocValuesReaderState(searcher.getIndexReader(), CatalogDocuments.FACETS);
+            facetState = state;
+        }
+        return state;
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(change);
+            }
+        });
+    }
+
+    /*
+     * The database write has already committed, so a failed index update must not fail the request
+     * -> counted in catalog.index.update.failures; the next rebuild repairs the document.
+     * A running rebuild holds the write lock -> queue the change (it re-reads by id, so it still sees
+     * the latest row) for the rebuild to apply once its index is swapped in, and return right away.
+     */
+    private void apply(Runnable change) {
+        if (!rebuildLock.readLock().tryLock()) {
+            pendingChanges.add(change);
+            // The rebuild may have drained the queue between tryLock and add -> drain it here then
+            if (rebuildLock.readLock().tryLock()) {
+                rebuildLock.readLock().unlock();
+                applyPendingChanges();
+            }
+            return;
+        }
+        try {
+            readTransaction.executeWithoutResult(status -> change.run());
+            searcherManager.maybeRefresh();
+            meterRegistry.counter("catalog.index.updates").increment();
+        } catch (IOException | RuntimeException e) {
+            meterRegistry.counter("catalog.index.update.failures").increment();
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    private void applyPendingChanges() {
+        Runnable change;
+        while ((change = pendingChanges.poll()) != null) {
+            apply(change);
+        }
+    }
+
+    private void upsert(CatalogKind kind, UUID id, Document doc) {
+        try {
+            writer.updateDocument(CatalogDocuments.key(kind, id), doc);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void delete(Term... terms) {
+        try {
+            writer.deleteDocuments(terms);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Spring sort -> Lucene sort; null when any property isn't sortable in the index
+    private static Sort toLuceneSort(org.springframework.data.domain.Sort sort) {
+        List<SortField> fields = new ArrayList<>();
+        for (org.springframework.data.domain.Sort.Order order : sort) {
+            SortField.Type type = CatalogDocuments.SORTABLE.get(order.getProperty());
+            if (type == null) {
+                return null;
+            }
+            // Missing values sort as the largest, like NULLs in PostgreSQL
+            SortField field = new SortField(order.getProperty(), type, order.isDescending());
+            field.setMissingValue(type == SortField.Type.STRING ? SortField.STRING_LAST : Long.MAX_VALUE);
+            fields.add(field);
+        }
+        fields.add(new SortField(CatalogDocuments.ID, SortField.Type.STRING));
+
+        return new Sort(fields.toArray(SortField[]::new));
+    }
+
+
+}
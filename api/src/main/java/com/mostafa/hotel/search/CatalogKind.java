@@ -0,0 +1,9 @@
+package com.mostafa.hotel.search;
+
+
+// Document types in the catalog index (one index, filtered by kind)
+enum CatalogKind {
+    HOTEL,
+    APARTMENT,
+    ROOM
+}
@@ -0,0 +1,137 @@
+package com.mostafa.hotel.search;
+
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.WildcardQuery;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/*
+ * Catalog index counterpart of the JPA specifications 🧩
+ * Same rule as Filters: a filter is added only when its value was supplied, with the same meaning
+ * (contains = case-insensitive substring, equal on strings = case-insensitive, ranges inclusive).
+ */
+public final class CatalogQuery {
+    private final CatalogKind kind;
+    private final List<Query> filters = new ArrayList<>();
+    // field -> its equal() filter, so facets can count that field without it
+    private final Map<String, Query> equalFilters = new HashMap<>();
+    private final List<String> facets = new ArrayList<>();
+
+    private CatalogQuery(CatalogKind kind) {
+        this.kind = kind;
+    }
+
+
+    public static CatalogQuery hotels() {
+        return new CatalogQuery(CatalogKind.HOTEL);
+    }
+
+    public static CatalogQuery apartments() {
+        return new CatalogQuery(CatalogKind.APARTMENT);
+    }
+
+    public static CatalogQuery rooms() {
+        return new CatalogQuery(CatalogKind.ROOM);
+    }
+
+    // Case-insensitive "contains" (blank = no filter)
+    public CatalogQuery contains(String field, String value) {
+        if (value != null && !value.isEmpty()) {
+            filters.add(new WildcardQuery(new Term(field, "*" + escape(CatalogDocuments.normalize(value)) + "*")));
+        }
+        return this;
+    }
+
+    // Case-sensitive "contains" (blank = no filter)
+    public CatalogQuery containsExact(String field, String value) {
+        if (value != null && !value.isEmpty()) {
+            filters.add(new WildcardQuery(new Term(field, "*" + escape(value) + "*")));
+        }
+        return this;
+    }
+
+    public CatalogQuery equal(String field, Object value) {
+        Query filter = null;
+        if (value instanceof String text && !text.isEmpty()) {
+            filter = new TermQuery(new Term(field, CatalogDocuments.normalize(text)));
+        } else if (value instanceof Enum<?> constant) {
+            filter = new TermQuery(new Term(field, constant.name()));
+        } else if (value instanceof Boolean flag) {
+            filter = new TermQuery(new Term(field, flag.toString()));
+        }
+        if (filter != null) {
+            filters.add(filter);
+            equalFilters.put(field, filter);
+        }
+        return this;
+    }
+
+    public CatalogQuery between(String field, Number min, Number max) {
+        if (min != null || max != null) {
+            filters.add(LongPoint.newRangeQuery(field,
+                    min == null ? Long.MIN_VALUE : CatalogDocuments.scaled(min, RoundingMode.CEILING),
+                    max == null ? Long.MAX_VALUE : CatalogDocuments.scaled(max, RoundingMode.FLOOR)));
+        }
+        return this;
+    }
+
+    /*
+     * Count these dimensions over every hit as well (CatalogHits.facets)
+     * enum fields, "city" and "amenities" by value, "pricePerNight" by PriceBand
+     */
+    public CatalogQuery facets(String... dimensions) {
+        facets.addAll(List.of(dimensions));
+        return this;
+    }
+
+    List<String> facets() {
+        return facets;
+    }
+
+    // Is this field narrowed to a single value by equal()?
+    boolean filtersOn(String field) {
+        return equalFilters.containsKey(field);
+    }
+
+    Query toQuery() {
+        return toQueryWithout(null);
+    }
+
+    // Same query minus the equal() filter on this field (null = all filters)
+    Query toQueryWithout(String field) {
+        Query skipped = field == null ? null : equalFilters.get(field);
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(CatalogDocuments.KIND, kind.name())), BooleanClause.Occur.FILTER);
+        filters.stream()
+                .filter(filter -> filter != skipped)
+                .forEach(filter -> query.add(filter, BooleanClause.Occur.FILTER));
+
+        return new ConstantScoreQuery(query.build());
+    }
+
+
+    // ==================== PRIVATE HELPER METHODS ====================
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == WildcardQuery.WILDCARD_STRING || c == WildcardQuery.WILDCARD_CHAR || c == WildcardQuery.WILDCARD_ESCAPE) {
+                escaped.append(WildcardQuery.WILDCARD_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+
+}
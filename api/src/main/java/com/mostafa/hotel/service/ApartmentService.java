@@ -4,30 +4,47 @@ package com.mostafa.hotel.service;
 import com.mostafa.hotel.dto.apartment.ApartmentResponseDTO;
 import com.mostafa.hotel.dto.apartment.CreateApartmentDTO;
 import com.mostafa.hotel.dto.apartment.UpdateApartmentDTO;
+import com.mostafa.hotel.dto.availability.AvailabilityCalendarDTO;
 import com.mostafa.hotel.enums.ApartmentType;
 import com.mostafa.hotel.global.CustomResponseException;
 import com.mostafa.hotel.mapper.EntityDtoMapper;
 import com.mostafa.hotel.model.Apartment;
 import com.mostafa.hotel.model.Hotel;
+import com.mostafa.hotel.repository.ApartmentAvailabilityRepo;
 import com.mostafa.hotel.repository.ApartmentRepo;
 import com.mostafa.hotel.repository.HotelRepo;
+import com.mostafa.hotel.search.CatalogHits;
+import com.mostafa.hotel.search.CatalogIndex;
+import com.mostafa.hotel.search.CatalogQuery;
+import com.mostafa.hotel.specification.ApartmentSpecs;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 
 @Service
 @RequiredArgsConstructor
 public class ApartmentService {
+    private static final int MAX_CALENDAR_NIGHTS = 366;
+
     private final ApartmentRepo apartmentRepo;
     private final HotelRepo hotelRepo;
+    private final ApartmentAvailabilityRepo apartmentAvailabilityRepo;
+    private final AvailabilityIndex availabilityIndex;
     private final EntityDtoMapper mapper;
+    private final CatalogIndex catalogIndex;
 
 
     //  Create
@@ -37,6 +54,7 @@ public class ApartmentService {
 
         Apartment apartment = mapper.toApartmentEntity(dto, hotel);
         Apartment savedApartment = apartmentRepo.save(apartment);
+        catalogIndex.apartmentSaved(savedApartment.getId());
 
         return mapper.toApartmentResponseDTO(savedApartment);
     }
@@ -112,6 +130,7 @@ public class ApartmentService {
 
 
         Apartment updatedApartment = apartmentRepo.save(existingApartment);
+        catalogIndex.apartmentSaved(apartmentId);
 
         return mapper.toApartmentResponseDTO(updatedApartment);
     }
@@ -123,6 +142,7 @@ public class ApartmentService {
                 .orElseThrow(() -> CustomResponseException.ResourceNotFound("Apartment not found with this ID: " + apartmentId));
 
         apartmentRepo.delete(apartment);
+        catalogIndex.apartmentDeleted(apartmentId);
 
         return "Apartment Deleted Success 🤞";
     }
@@ -135,6 +155,25 @@ public class ApartmentService {
         return mapper.toApartmentResponseDTO(apartment);
     }
 
+    //  Availability calendar for [from, to) -> one char per night, from the in-memory index (one query otherwise)
+    public AvailabilityCalendarDTO getApartmentCalendar(UUID apartmentId, LocalDate from, LocalDate to) {
+        if (!from.isBefore(to)) {
+            throw CustomResponseException.BadRequest("'to' must be after 'from'");
+        }
+        long nights = ChronoUnit.DAYS.between(from, to);
+        if (nights > MAX_CALENDAR_NIGHTS) {
+            throw CustomResponseException.BadRequest("Calendar range cannot exceed " + MAX_CALENDAR_NIGHTS + " nights");
+        }
+
+        Apartment apartment = apartmentRepo.findById(apartmentId)
+                .orElseThrow(() -> CustomResponseException.ResourceNotFound("Apartment not found with this ID: " + apartmentId));
+
+        List<Integer> takenNights = availabilityIndex.apartmentTakenNights(apartmentId, from, to)
+                .orElseGet(() -> apartmentAvailabilityRepo.findUnavailableNightOffsets(apartmentId, from, (int) nights));
+
+        return AvailabilityCalendarDTO.of(apartmentId, from, to, apartment.getPricePerNight(), takenNights);
+    }
+
     //    Get All
     public Page<ApartmentResponseDTO> getAllWithSearch(
             String apartmentNumber,
@@ -161,18 +200,54 @@ public class ApartmentService {
             Boolean hasAirConditioning,
             Boolean hasParking,
             Boolean hasLaundry,
+            String city,
+            LocalDate checkIn,
+            LocalDate checkOut,
             int page,
             int size,
             String sortBy,
             String direction
     ) {
+        validateStayRange(checkIn, checkOut);
+
         Sort sort = direction.equalsIgnoreCase("DESC")
                 ? Sort.by(sortBy).descending()
                 : Sort.by(sortBy).ascending();
 
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Apartment> apartmentsPage = apartmentRepo.advancedSearchAll(
+        // Catalog index 🔎 -> answers attribute-only searches when enabled (stay dates need the booking tables)
+        if (checkIn == null) {
+            CatalogQuery query = CatalogQuery.apartments()
+                    .contains("apartmentNumber", apartmentNumber)
+                    .contains("name", name)
+                    .equal("apartmentType", apartmentType)
+                    .between("pricePerNight", minPrice, maxPrice)
+                    .between("totalCapacity", minCapacity, maxCapacity)
+                    .between("numberOfBedrooms", minBedrooms, maxBedrooms)
+                    .between("numberOfBathrooms", minBathrooms, maxBathrooms)
+                    .between("floorNumber", floorNumber, floorNumber)
+                    .between("areaSqm", minArea, maxArea)
+                    .equal("isAvailable", isAvailable)
+                    .equal("roomsBookableSeparately", roomsBookableSeparately)
+                    .equal("hasKitchen", hasKitchen)
+                    .equal("hasLivingRoom", hasLivingRoom)
+                    .equal("hasDiningArea", hasDiningArea)
+                    .equal("hasBalcony", hasBalcony)
+                    .equal("hasWifi", hasWifi)
+                    .equal("hasAirConditioning", hasAirConditioning)
+                    .equal("hasParking", hasParking)
+                    .equal("hasLaundry", hasLaundry)
+                    .equal("city", city);
+
+            Optional<CatalogHits> hits = catalogIndex.search(query, pageable);
+            if (hits.isPresent()) {
+                List<Apartment> apartments = hits.get().inHitOrder(apartmentRepo.findAllByIdIn(hits.get().ids()), Apartment::getId);
+                return new PageImpl<>(apartments.stream().map(mapper::toApartmentResponseDTO).toList(), pageable, hits.get().total());
+            }
+        }
+
+        Specification<Apartment> spec = ApartmentSpecs.filter(
                 apartmentNumber,
                 name,
                 apartmentType,
@@ -196,9 +271,12 @@ public class ApartmentService {
                 hasWifi,
                 hasAirConditioning,
                 hasParking,
-                hasLaundry,
-                pageable
-        );
+                hasLaundry
+        )
+                .and(ApartmentSpecs.inCity(city))
+                .and(ApartmentSpecs.freeBetween(checkIn, checkOut));
+
+        Page<Apartment> apartmentsPage = apartmentRepo.findAll(spec, pageable);
 
         return apartmentsPage.map(mapper::toApartmentResponseDTO);
     }
@@ -232,19 +310,22 @@ public class ApartmentService {
             Boolean hasAirConditioning,
             Boolean hasParking,
             Boolean hasLaundry,
+            LocalDate checkIn,
+            LocalDate checkOut,
             int page,
             int size,
             String sortBy,
             String direction
     ) {
+        validateStayRange(checkIn, checkOut);
+
         Sort sort = direction.equalsIgnoreCase("DESC")
                 ? Sort.by(sortBy).descending()
                 : Sort.by(sortBy).ascending();
 
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Apartment> apartmentsPage = apartmentRepo.advancedSearch(
-                hotelId,
+        Specification<Apartment> spec = ApartmentSpecs.filter(
                 apartmentNumber,
                 name,
                 apartmentType,
@@ -268,12 +349,27 @@ public class ApartmentService {
                 hasWifi,
                 hasAirConditioning,
                 hasParking,
-                hasLaundry,
-                pageable
-        );
+                hasLaundry
+        )
+                .and(ApartmentSpecs.inHotel(hotelId))
+                .and(ApartmentSpecs.freeBetween(checkIn, checkOut));
+
+        Page<Apartment> apartmentsPage = apartmentRepo.findAll(spec, pageable);
 
         return apartmentsPage.map(mapper::toApartmentResponseDTO);
     }
 
 
+    // ==================== PRIVATE HELPER METHODS ====================
+    // Both dates or neither -> units are filtered to those free for every night in [checkIn, checkOut)
+    private void validateStayRange(LocalDate checkIn, LocalDate checkOut) {
+        if ((checkIn == null) != (checkOut == null)) {
+            throw CustomResponseException.BadRequest("checkIn and checkOut must be provided together");
+        }
+        if (checkIn != null && !checkIn.isBefore(checkOut)) {
+            throw CustomResponseException.BadRequest("Check-out date must be after check-in date");
+        }
+    }
+
+
 }
@@ -1,16 +1,20 @@
 package com.mostafa.hotel.service;
 
+import com.mostafa.hotel.config.AuthPrincipal;
 import com.mostafa.hotel.config.JwtHelper;
 import com.mostafa.hotel.dto.auth.LoginRequestDTO;
 import com.mostafa.hotel.dto.auth.RegisterRequestDTO;
 import com.mostafa.hotel.global.CustomResponseException;
 import com.mostafa.hotel.model.User;
 import com.mostafa.hotel.repository.UserRepo;
+import com.mostafa.hotel.utils.CurrentUser;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -23,6 +27,11 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtHelper jwtHelper;
+    private final CurrentUser currentUser;
+    private final TokenVersions tokenVersions;
+
+    @Value("${security.auth.stateless:false}")
+    private boolean statelessAuth;
 
 
     //    Register
@@ -47,10 +56,8 @@ public class AuthService {
         User user = userRepo.findByEmail(dto.email())
                 .orElseThrow(CustomResponseException::BadCredentials);
 
-        Map<String, Object> customClaims = new HashMap<>();
-        customClaims.put("userId", user.getId());
-
-        String token = jwtHelper.generateToken(customClaims, user);
+        // userId + role + token version -> enough for stateless mode to skip the users table
+        String token = jwtHelper.generateToken(AuthPrincipal.claimsOf(user), user);
 
         // Prepare response with token and user info
         Map<String, Object> response = new HashMap<>();
@@ -62,4 +69,20 @@ public class AuthService {
         return response;
     }
 
+    /*
+     * Logout
+     * Stateless mode -> claims are trusted until they expire, so the user's tokens are revoked
+     * (every device). Stateful mode keeps the plain logout: the controller clears the context.
+     */
+    @Transactional
+    public void logout() {
+        if (!statelessAuth) {
+            return;
+        }
+        User user = currentUser.getCurrentUser();
+        if (user != null) {
+            tokenVersions.revoke(user.getId(), user.getEmail());
+        }
+    }
+
 }
\ No newline at end of file
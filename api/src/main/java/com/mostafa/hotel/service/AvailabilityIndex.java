@@ -0,0 +1,197 @@
+package com.mostafa.hotel.service;
+
+import com.mostafa.hotel.dto.availability.BlockedNightDTO;
+import com.mostafa.hotel.dto.availability.BookedRangeDTO;
+import com.mostafa.hotel.enums.BookingType;
+import com.mostafa.hotel.model.Booking;
+import com.mostafa.hotel.repository.ApartmentAvailabilityRepo;
+import com.mostafa.hotel.repository.BookingRepo;
+import com.mostafa.hotel.repository.RoomAvailabilityRepo;
+import com.mostafa.hotel.utils.NightBitmap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+
+/*
+ * In-memory availability index 🗓️
+ * Every room / apartment gets a NightBitmap covering [today, today + horizon) where a set bit
+ * means the night is booked or blocked. With the default 730-day horizon one unit costs
+ * ~128 bytes of bitmap + ~100 bytes of map entry and UUID key, so 10k units stay under 3 MB.
+ *
+ * Loaded from bookings + availability tables at startup, rebuilt on a schedule (which also rolls
+ * the horizon forward and picks up changes made by other nodes), and updated after every
+ * booking / cancellation commit on this node.
+ * Between rebuilds it can be stale in both directions (changes from other nodes, manual fixes), so it
+ * only serves reads that tolerate that: the availability calendars, which are a view and not a promise.
+ * Bookings never consult it -> they check the database under the unit lock.
+ */
+@Service
+@RequiredArgsConstructor
+public class AvailabilityIndex {
+    private final BookingRepo bookingRepo;
+    private final RoomAvailabilityRepo roomAvailabilityRepo;
+    private final ApartmentAvailabilityRepo apartmentAvailabilityRepo;
+
+    @Value("${availability.index.horizon-days:730}")
+    private int horizonDays;
+
+    // Rebuild holds the write side so commits that land mid-rebuild are applied to the new snapshot
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    private volatile Snapshot snapshot = new Snapshot(LocalDate.now(), 0);
+
+
+    // Load (or reload) everything from the database
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${availability.index.refresh-interval:PT10M}",
+            initialDelayString = "${availability.index.refresh-interval:PT10M}")
+    public void rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            LocalDate origin = LocalDate.now();
+            LocalDate end = origin.plusDays(horizonDays);
+            Snapshot fresh = new Snapshot(origin, horizonDays);
+
+            for (BookedRangeDTO range : bookingRepo.findActiveRoomRanges(origin, end)) {
+                fresh.mark(fresh.rooms, range.unitId(), range.checkIn(), range.checkOut(), true);
+            }
+            for (BookedRangeDTO range : bookingRepo.findActiveApartmentRanges(origin, end)) {
+                fresh.mark(fresh.apartments, range.unitId(), range.checkIn(), range.checkOut(), true);
+            }
+            for (BlockedNightDTO night : roomAvailabilityRepo.findBlockedNights(origin, end)) {
+                fresh.mark(fresh.rooms, night.unitId(), night.date(), night.date().plusDays(1), true);
+            }
+            for (BlockedNightDTO night : apartmentAvailabilityRepo.findBlockedNights(origin, end)) {
+                fresh.mark(fresh.apartments, night.unitId(), night.date(), night.date().plusDays(1), true);
+            }
+
+            snapshot = fresh;
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    /*
+     * Taken nights of [from, to) as offsets from `from` (0 = from), read from memory
+     * Empty -> not loaded yet, or the window reaches outside the horizon: ask the database instead.
+     */
+    public Optional<List<Integer>> roomTakenNights(UUID roomId, LocalDate from, LocalDate to) {
+        Snapshot current = snapshot;
+        return Optional.ofNullable(current.takenNights(current.rooms, roomId, from, to));
+    }
+
+    public Optional<List<Integer>> apartmentTakenNights(UUID apartmentId, LocalDate from, LocalDate to) {
+        Snapshot current = snapshot;
+        return Optional.ofNullable(current.takenNights(current.apartments, apartmentId, from, to));
+    }
+
+    // Mark the booking's nights once its transaction commits
+    public void markBookedAfterCommit(Booking booking) {
+        applyAfterCommit(booking, true);
+    }
+
+    // Free the booking's nights once the cancellation commits
+    public void releaseAfterCommit(Booking booking) {
+        applyAfterCommit(booking, false);
+    }
+
+    public int getHorizonDays() {
+        return horizonDays;
+    }
+
+
+    // ==================== PRIVATE HELPER METHODS ====================
+    private void applyAfterCommit(Booking booking, boolean booked) {
+        boolean isApartment = booking.getBookingType() == BookingType.APARTMENT;
+        UUID unitId = isApartment ? booking.getApartment().getId() : booking.getRoom().getId();
+        LocalDate checkIn = booking.getCheckInDate();
+        LocalDate checkOut = booking.getCheckOutDate();
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                rebuildLock.readLock().lock();
+                try {
+                    Snapshot current = snapshot;
+                    current.mark(isApartment ? current.apartments : current.rooms, unitId, checkIn, checkOut, booked);
+                } finally {
+                    rebuildLock.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    private static final class Snapshot {
+        private final LocalDate origin;
+        private final int nights;
+        private final Map<UUID, NightBitmap> rooms = new ConcurrentHashMap<>();
+        private final Map<UUID, NightBitmap> apartments = new ConcurrentHashMap<>();
+
+        private Snapshot(LocalDate origin, int nights) {
+            this.origin = origin;
+            this.nights = nights;
+        }
+
+        private void mark(Map<UUID, NightBitmap> units, UUID unitId,
+                          LocalDate from, LocalDate to, boolean booked) {
+            if (nights == 0) {
+                return;
+            }
+            NightBitmap bitmap = booked
+                    ? units.computeIfAbsent(unitId, id -> new NightBitmap(nights))
+                    : units.get(unitId);
+            if (bitmap == null) {
+                return;
+            }
+            if (booked) {
+                bitmap.set(offset(from), offset(to));
+            } else {
+                bitmap.clear(offset(from), offset(to));
+            }
+        }
+
+        // null -> window not (fully) inside [origin, origin + nights)
+        private List<Integer> takenNights(Map<UUID, NightBitmap> units, UUID unitId, LocalDate from, LocalDate to) {
+            if (nights == 0 || from.isBefore(origin) || ChronoUnit.DAYS.between(origin, to) > nights) {
+                return null;
+            }
+            NightBitmap bitmap = units.get(unitId);
+            if (bitmap == null || !bitmap.anySet(offset(from), offset(to))) {
+                return List.of();
+            }
+
+            List<Integer> taken = new ArrayList<>();
+            int first = offset(from);
+            for (int night = first; night < offset(to); night++) {
+                if (bitmap.isSet(night)) {
+                    taken.add(night - first);
+                }
+            }
+            return taken;
+        }
+
+        // Clamped so far-future dates can't overflow the int offset
+        private int offset(LocalDate date) {
+            long days = ChronoUnit.DAYS.between(origin, date);
+            return (int) Math.max(-1, Math.min(days, nights + 1L));
+        }
+    }
+
+
+}
@@ -1,6 +1,7 @@
 package com.mostafa.hotel.service;
 
 
+import com.mostafa.hotel.dto.CursorPage;
 import com.mostafa.hotel.dto.booking.BookingResponseDTO;
 import com.mostafa.hotel.dto.booking.CreateBookingDTO;
 import com.mostafa.hotel.enums.BookingStatus;
@@ -10,18 +11,24 @@ import com.mostafa.hotel.global.CustomResponseException;
 import com.mostafa.hotel.mapper.EntityDtoMapper;
 import com.mostafa.hotel.model.*;
 import com.mostafa.hotel.repository.*;
+import com.mostafa.hotel.utils.BookingLockManager;
 import com.mostafa.hotel.utils.CurrentUser;
+import com.mostafa.hotel.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 
 @Service
@@ -34,11 +41,17 @@ public class BookingService {
     private final RoomRepo roomRepo;
     private final RoomAvailabilityRepo roomAvailabilityRepo;
     private final CurrentUser currentUser;
+    private final BookingLockManager bookingLockManager;
+    private final AvailabilityIndex availabilityIndex;
     private final EntityDtoMapper mapper;
+    private final TransactionTemplate transactionTemplate;
 
 
-    // Create a new booking (Room or Apartment)
-    @Transactional
+    /*
+     * Create a new booking (Room or Apartment)
+     * Not @Transactional on purpose: requests for the same unit queue on the unit lock first and only
+     * then open the booking transaction, so waiting never holds a transaction or a pooled connection.
+     */
     public BookingResponseDTO createBooking(CreateBookingDTO dto) {
         User user = currentUser.getCurrentUser();
         if (user == null) {
@@ -46,29 +59,10 @@ public class BookingService {
         }
 
         validateBookingDates(dto.checkInDate(), dto.checkOutDate());
+        UUID unitId = unitIdOf(dto);
 
-        Hotel hotel = hotelRepo.findById(dto.hotelId())
-                .orElseThrow(() -> CustomResponseException.ResourceNotFound("Hotel not found"));
-
-        validateUserDoesNotHaveConflictingBooking(user.getId(), dto.checkInDate(), dto.checkOutDate());
-
-        Apartment apartment = null;
-        Room room = null;
-
-        if (dto.bookingType() == BookingType.APARTMENT) {
-            apartment = handleApartmentBooking(dto);
-        } else if (dto.bookingType() == BookingType.ROOM) {
-            room = handleRoomBooking(dto);
-        } else {
-            throw CustomResponseException.BadRequest("Invalid booking type");
-        }
-
-        Booking booking = mapper.toBookingEntity(dto, user, hotel, apartment, room);
-        Booking savedBooking = bookingRepo.save(booking);
-
-        markDatesAsUnavailable(dto.bookingType(), apartment, room, dto.checkInDate(), dto.checkOutDate());
-
-        return mapper.toBookingResponseDTO(savedBooking);
+        return bookingLockManager.withLock(unitId,
+                () -> transactionTemplate.execute(status -> book(dto, user)));
     }
 
     // Cancel a booking
@@ -111,6 +105,7 @@ public class BookingService {
 
         releaseDates(booking.getBookingType(), booking.getApartment(), booking.getRoom(),
                 booking.getCheckInDate(), booking.getCheckOutDate());
+        availabilityIndex.releaseAfterCommit(booking);
 
         return mapper.toBookingResponseDTO(updatedBooking);
     }
@@ -136,6 +131,26 @@ public class BookingService {
         return bookingsPage.map(mapper::toBookingResponseDTO);
     }
 
+    // Get all bookings for current user -> keyset page (newest first), blank cursor = first page
+    public CursorPage<BookingResponseDTO> getCurrentUserBookingsAfter(String cursor, int size) {
+        User user = currentUser.getCurrentUser();
+        if (user == null) {
+            throw CustomResponseException.BadCredentials();
+        }
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable pageable = PageRequest.of(0, size, Sort.by(Sort.Order.desc("createdDate"), Sort.Order.desc("id")));
+
+        Slice<Booking> bookingsSlice = bookingRepo.findUserPageAfter(
+                user.getId(),
+                after == null ? null : after.sortValueAsDateTime(),
+                after == null ? null : after.id(),
+                pageable
+        );
+
+        return CursorPage.of(bookingsSlice, mapper::toBookingResponseDTO, b -> KeysetCursor.encode(b.getCreatedDate(), b.getId()));
+    }
+
     // Get all bookings for a specific user by ID (Admin && Manager)
     public Page<BookingResponseDTO> getUserBookings(UUID userId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
@@ -144,24 +159,77 @@ public class BookingService {
         return bookingsPage.map(mapper::toBookingResponseDTO);
     }
 
-    // Get all bookings for Room
-    public List<BookingResponseDTO> getRoomBookings(UUID roomId) {
-        List<Booking> bookings = bookingRepo.findByRoomId(roomId);
-        return bookings.stream()
-                .map(mapper::toBookingResponseDTO)
-                .toList();
-    }
+    // Get booking history for Room (Paginated + optional date window / status)
+    public Page<BookingResponseDTO> getRoomBookings(UUID roomId, LocalDate from, LocalDate to,
+                                                    BookingStatus status, int page, int size) {
+        validateHistoryWindow(from, to);
 
-    // Get all bookings for Apartment
-    public List<BookingResponseDTO> getApartmentBookings(UUID apartmentId) {
-        List<Booking> bookings = bookingRepo.findByApartmentId(apartmentId);
-        return bookings.stream()
-                .map(mapper::toBookingResponseDTO)
-                .toList();
+        Pageable pageable = PageRequest.of(page, size, Sort.by("checkInDate").descending());
+        Page<Booking> bookingsPage = bookingRepo.findRoomHistory(roomId, from, to, status, pageable);
+
+        return bookingsPage.map(mapper::toBookingResponseDTO);
     }
 
+    // Get booking history for Apartment (Paginated + optional date window / status)
+    public Page<BookingResponseDTO> getApartmentBookings(UUID apartmentId, LocalDate from, LocalDate to,
+                                                         BookingStatus status, int page, int size) {
+        validateHistoryWindow(from, to);
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by("checkInDate").descending());
+        Page<Booking> bookingsPage = bookingRepo.findApartmentHistory(apartmentId, from, to, status, pageable);
+
+        return bookingsPage.map(mapper::toBookingResponseDTO);
+    }
 
     // ==================== PRIVATE HELPER METHODS ====================
+    // Runs in its own transaction while the unit lock is held (see createBooking)
+    private BookingResponseDTO book(CreateBookingDTO dto, User user) {
+        Hotel hotel = hotelRepo.findById(dto.hotelId())
+                .orElseThrow(() -> CustomResponseException.ResourceNotFound("Hotel not found"));
+
+        validateUserDoesNotHaveConflictingBooking(user.getId(), dto.checkInDate(), dto.checkOutDate());
+
+        Apartment apartment = null;
+        Room room = null;
+
+        if (dto.bookingType() == BookingType.APARTMENT) {
+            apartment = handleApartmentBooking(dto);
+        } else {
+            room = handleRoomBooking(dto);
+        }
+
+        Booking booking = mapper.toBookingEntity(dto, user, hotel, apartment, room);
+        Booking savedBooking = bookingRepo.save(booking);
+
+        markDatesAsUnavailable(dto.bookingType(), apartment, room, dto.checkInDate(), dto.checkOutDate());
+        availabilityIndex.markBookedAfterCommit(savedBooking);
+
+        return mapper.toBookingResponseDTO(savedBooking);
+    }
+
+    // Booked unit of the request (validated before any lock is taken)
+    private UUID unitIdOf(CreateBookingDTO dto) {
+        if (dto.bookingType() == BookingType.APARTMENT) {
+            if (dto.apartmentId() == null) {
+                throw CustomResponseException.BadRequest("Apartment ID is required for apartment booking");
+            }
+            return dto.apartmentId();
+        }
+        if (dto.bookingType() == BookingType.ROOM) {
+            if (dto.roomId() == null) {
+                throw CustomResponseException.BadRequest("Room ID is required for room booking");
+            }
+            return dto.roomId();
+        }
+        throw CustomResponseException.BadRequest("Invalid booking type");
+    }
+
+    private void validateHistoryWindow(LocalDate from, LocalDate to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw CustomResponseException.BadRequest("'to' must be after 'from'");
+        }
+    }
+
     private void validateBookingDates(LocalDate checkIn, LocalDate checkOut) {
         if (checkIn.isAfter(checkOut) || checkIn.isEqual(checkOut)) {
             throw CustomResponseException.BadRequest("Check-out date must be after check-in date");
@@ -181,11 +249,7 @@ public class BookingService {
     }
 
     private Apartment handleApartmentBooking(CreateBookingDTO dto) {
-        if (dto.apartmentId() == null) {
-            throw CustomResponseException.BadRequest("Apartment ID is required for apartment booking");
-        }
-
-        Apartment apartment = apartmentRepo.findById(dto.apartmentId())
+        Apartment apartment = apartmentRepo.findByIdForUpdate(dto.apartmentId())
                 .orElseThrow(() -> CustomResponseException.ResourceNotFound("Apartment not found"));
 
         if (!apartment.getIsAvailable()) {
@@ -199,18 +263,14 @@ public class BookingService {
         }
 
         if (!isApartmentAvailableForDates(apartment.getId(), dto.checkInDate(), dto.checkOutDate())) {
-            throw CustomResponseException.BadRequest("Apartment is not available for the selected dates");
+            throw CustomResponseException.Conflict("Apartment is not available for the selected dates");
         }
 
         return apartment;
     }
 
     private Room handleRoomBooking(CreateBookingDTO dto) {
-        if (dto.roomId() == null) {
-            throw CustomResponseException.BadRequest("Room ID is required for room booking");
-        }
-
-        Room room = roomRepo.findById(dto.roomId())
+        Room room = roomRepo.findByIdForUpdate(dto.roomId())
                 .orElseThrow(() -> CustomResponseException.ResourceNotFound("Room not found"));
 
         if (!room.getIsAvailable()) {
@@ -228,7 +288,7 @@ public class BookingService {
         }
 
         if (!isRoomAvailableForDates(room.getId(), dto.checkInDate(), dto.checkOutDate())) {
-            throw CustomResponseException.BadRequest("Room is not available for the selected dates");
+            throw CustomResponseException.Conflict("Room is not available for the selected dates");
         }
 
         return room;
@@ -240,16 +300,7 @@ public class BookingService {
             return false;
         }
 
-        List<LocalDate> dates = checkIn.datesUntil(checkOut).collect(Collectors.toList());
-        for (LocalDate date : dates) {
-            ApartmentAvailability availability = apartmentAvailabilityRepo
-                    .findByApartmentIdAndDate(apartmentId, date);
-            if (availability != null && !availability.getIsAvailable()) {
-                return false;
-            }
-        }
-
-        return true;
+        return !apartmentAvailabilityRepo.existsBlockedDateInRange(apartmentId, checkIn, checkOut);
     }
 
     private boolean isRoomAvailableForDates(UUID roomId, LocalDate checkIn, LocalDate checkOut) {
@@ -258,76 +309,53 @@ public class BookingService {
             return false;
         }
 
-        List<LocalDate> dates = checkIn.datesUntil(checkOut).collect(Collectors.toList());
-        for (LocalDate date : dates) {
-            RoomAvailability availability = roomAvailabilityRepo.findByRoomIdAndDate(roomId, date);
-            if (availability != null && !availability.getIsAvailable()) {
-                return false;
-            }
-        }
-
-        return true;
+        return !roomAvailabilityRepo.existsBlockedDateInRange(roomId, checkIn, checkOut);
     }
 
+    // Existing rows are flipped with one UPDATE, missing nights are inserted as one JDBC batch
     private void markDatesAsUnavailable(BookingType bookingType, Apartment apartment, Room room,
                                         LocalDate checkIn, LocalDate checkOut) {
-        List<LocalDate> dates = checkIn.datesUntil(checkOut).collect(Collectors.toList());
-
         if (bookingType == BookingType.APARTMENT && apartment != null) {
-            for (LocalDate date : dates) {
-                ApartmentAvailability availability = apartmentAvailabilityRepo
-                        .findByApartmentIdAndDate(apartment.getId(), date);
+            Set<LocalDate> existingDates = new HashSet<>(apartmentAvailabilityRepo
+                    .findExistingDatesInRange(apartment.getId(), checkIn, checkOut));
+            if (!existingDates.isEmpty()) {
+                apartmentAvailabilityRepo.updateAvailabilityInRange(apartment.getId(), checkIn, checkOut, false);
+            }
 
-                if (availability == null) {
-                    availability = ApartmentAvailability.builder()
+            List<ApartmentAvailability> newRows = checkIn.datesUntil(checkOut)
+                    .filter(date -> !existingDates.contains(date))
+                    .map(date -> ApartmentAvailability.builder()
                             .apartment(apartment)
                             .date(date)
                             .isAvailable(false)
-                            .build();
-                } else {
-                    availability.setIsAvailable(false);
-                }
-                apartmentAvailabilityRepo.save(availability);
-            }
+                            .build())
+                    .toList();
+            apartmentAvailabilityRepo.saveAll(newRows);
         } else if (bookingType == BookingType.ROOM && room != null) {
-            for (LocalDate date : dates) {
-                RoomAvailability availability = roomAvailabilityRepo.findByRoomIdAndDate(room.getId(), date);
+            Set<LocalDate> existingDates = new HashSet<>(roomAvailabilityRepo
+                    .findExistingDatesInRange(room.getId(), checkIn, checkOut));
+            if (!existingDates.isEmpty()) {
+                roomAvailabilityRepo.updateAvailabilityInRange(room.getId(), checkIn, checkOut, false);
+            }
 
-                if (availability == null) {
-                    availability = RoomAvailability.builder()
+            List<RoomAvailability> newRows = checkIn.datesUntil(checkOut)
+                    .filter(date -> !existingDates.contains(date))
+                    .map(date -> RoomAvailability.builder()
                             .room(room)
                             .date(date)
                             .isAvailable(false)
-                            .build();
-                } else {
-                    availability.setIsAvailable(false);
-                }
-                roomAvailabilityRepo.save(availability);
-            }
+                            .build())
+                    .toList();
+            roomAvailabilityRepo.saveAll(newRows);
         }
     }
 
     private void releaseDates(BookingType bookingType, Apartment apartment, Room room,
                               LocalDate checkIn, LocalDate checkOut) {
-        List<LocalDate> dates = checkIn.datesUntil(checkOut).collect(Collectors.toList());
-
         if (bookingType == BookingType.APARTMENT && apartment != null) {
-            for (LocalDate date : dates) {
-                ApartmentAvailability availability = apartmentAvailabilityRepo
-                        .findByApartmentIdAndDate(apartment.getId(), date);
-                if (availability != null) {
-                    availability.setIsAvailable(true);
-                    apartmentAvailabilityRepo.save(availability);
-                }
-            }
+            apartmentAvailabilityRepo.updateAvailabilityInRange(apartment.getId(), checkIn, checkOut, true);
         } else if (bookingType == BookingType.ROOM && room != null) {
-            for (LocalDate date : dates) {
-                RoomAvailability availability = roomAvailabilityRepo.findByRoomIdAndDate(room.getId(), date);
-                if (availability != null) {
-                    availability.setIsAvailable(true);
-                    roomAvailabilityRepo.save(availability);
-                }
-            }
+            roomAvailabilityRepo.updateAvailabilityInRange(room.getId(), checkIn, checkOut, true);
         }
     }
 
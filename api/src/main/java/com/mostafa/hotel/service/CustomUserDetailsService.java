@@ -1,31 +1,71 @@
 package com.mostafa.hotel.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.mostafa.hotel.model.User;
 import com.mostafa.hotel.repository.UserRepo;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.Optional;
+import java.time.Duration;
 
 
+/*
+ * Principals by email, cached for security.principal-cache.ttl 👤
+ * JwtAuthFilter loads the principal on every authenticated request; the cache turns that into one
+ * users query per user per TTL. UserService evicts on update / delete (after commit, so a concurrent
+ * request can't re-cache the old row), anything else changing a user's role or email must do the same.
+ * Cached users are detached snapshots -> read them, never modify them.
+ */
 @Service
-@RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
     private final UserRepo userRepo;
+    private final Cache<String, User> principals;
+
+
+    public CustomUserDetailsService(UserRepo userRepo,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${security.principal-cache.ttl:PT5M}") Duration ttl,
+                                    @Value("${security.principal-cache.max-size:10000}") long maxSize) {
+        this.userRepo = userRepo;
+        this.principals = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "security.principal");
+    }
 
 
     @Override
     public UserDetails loadUserByUsername(String userEmail) throws UsernameNotFoundException {
-        Optional<User> userAccount = userRepo.findByEmail(userEmail);
-        if (userAccount.isEmpty()) {
+        // Unknown emails aren't cached (a null load stores nothing)
+        User userAccount = principals.get(userEmail, email -> userRepo.findByEmail(email).orElse(null));
+        if (userAccount == null) {
             throw new UsernameNotFoundException("User not found with this Email: " + userEmail);
         }
 
-        return userAccount.get();
+        return userAccount;
+    }
+
+    public void evict(String userEmail) {
+        principals.invalidate(userEmail);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    principals.invalidate(userEmail);
+                }
+            });
+        }
     }
 
 
-}
\ No newline at end of file
+}
@@ -1,28 +1,53 @@
 package com.mostafa.hotel.service;
 
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mostafa.hotel.dto.CursorPage;
 import com.mostafa.hotel.dto.hotel.CreateHotelDTO;
 import com.mostafa.hotel.dto.hotel.HotelResponseDTO;
 import com.mostafa.hotel.dto.hotel.UpdateHotelDTO;
 import com.mostafa.hotel.global.CustomResponseException;
+import com.mostafa.hotel.global.GlobalResponse;
 import com.mostafa.hotel.mapper.EntityDtoMapper;
 import com.mostafa.hotel.model.Hotel;
 import com.mostafa.hotel.repository.HotelRepo;
+import com.mostafa.hotel.search.CatalogHits;
+import com.mostafa.hotel.search.CatalogIndex;
+import com.mostafa.hotel.search.CatalogQuery;
+import com.mostafa.hotel.specification.HotelSpecs;
+import com.mostafa.hotel.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 
 @Service
 @RequiredArgsConstructor
 public class HotelService {
+    private static final int MAX_OCCUPANCY_NIGHTS = 366;
+
     private final HotelRepo hotelRepo;
     private final EntityDtoMapper mapper;
+    private final ObjectMapper objectMapper;
+    private final CatalogIndex catalogIndex;
 
 
     //  Create
@@ -34,6 +59,7 @@ public class HotelService {
         Hotel hotel = mapper.toHotelEntity(dto);
 
         Hotel savedHotel = hotelRepo.save(hotel);
+        catalogIndex.hotelSaved(savedHotel.getId());
 
         return mapper.toHotelResponseDTO(savedHotel);
     }
@@ -70,6 +96,7 @@ public class HotelService {
 
 
         Hotel updatedHotel = hotelRepo.save(existingHotel);
+        catalogIndex.hotelSaved(hotelId);
 
         return mapper.toHotelResponseDTO(updatedHotel);
     }
@@ -81,6 +108,7 @@ public class HotelService {
                 .orElseThrow(() -> CustomResponseException.ResourceNotFound("Hotel not found with this ID: " + hotelId));
 
         hotelRepo.delete(hotel);
+        catalogIndex.hotelDeleted(hotelId);
 
         return "Hotel Deleted Success 🤞";
     }
@@ -102,6 +130,20 @@ public class HotelService {
         return hotelsPage.map(mapper::toHotelResponseDTO);
     }
 
+    //    Get All -> keyset page (newest first), blank cursor = first page
+    public CursorPage<HotelResponseDTO> getHotelsAfter(String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable pageable = PageRequest.of(0, size, Sort.by(Sort.Order.desc("createdDate"), Sort.Order.desc("id")));
+
+        Slice<Hotel> hotelsSlice = hotelRepo.findPageAfter(
+                after == null ? null : after.sortValueAsDateTime(),
+                after == null ? null : after.id(),
+                pageable
+        );
+
+        return CursorPage.of(hotelsSlice, mapper::toHotelResponseDTO, h -> KeysetCursor.encode(h.getCreatedDate(), h.getId()));
+    }
+
 
     // ***************************** ((Specifications)) *********************** //
     //    Big Search
@@ -122,10 +164,108 @@ public class HotelService {
 
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Hotel> hotelsPage = hotelRepo.advancedSearch(name, city, country, phoneNumber, isActive, pageable);
+        // Catalog index 🔎 -> answers the search when enabled, JPA otherwise
+        CatalogQuery query = CatalogQuery.hotels()
+                .contains("name", name)
+                .contains("city", city)
+                .contains("country", country)
+                .containsExact("phoneNumber", phoneNumber)
+                .equal("isActive", isActive);
+
+        Optional<CatalogHits> hits = catalogIndex.search(query, pageable);
+        if (hits.isPresent()) {
+            List<Hotel> hotels = hits.get().inHitOrder(hotelRepo.findAllByIdIn(hits.get().ids()), Hotel::getId);
+            return new PageImpl<>(hotels.stream().map(mapper::toHotelResponseDTO).toList(), pageable, hits.get().total());
+        }
+
+        Page<Hotel> hotelsPage = hotelRepo.findAll(HotelSpecs.filter(name, city, country, phoneNumber, isActive), pageable);
 
         return hotelsPage.map(mapper::toHotelResponseDTO);
     }
 
+    //    Text Search -> ranked by relevance, so no sortBy/direction
+    public Page<HotelResponseDTO> searchHotelsByText(String q, int page, int size) {
+        Page<Hotel> hotelsPage = hotelRepo.searchByText(q.trim().toLowerCase(), PageRequest.of(page, size));
+
+        return hotelsPage.map(mapper::toHotelResponseDTO);
+    }
+
+
+    /*
+     * Occupancy grid for ((Specific-Hotel)) over [from, to)
+     * Every room and apartment is one row with one char per night ('1' = free, '0' = occupied).
+     * Rows are written to `out` as they come off the database cursor -> nothing is buffered per hotel 🤞
+     */
+    @Transactional(readOnly = true)
+    public void writeOccupancy(UUID hotelId, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        if (!from.isBefore(to)) {
+            throw CustomResponseException.BadRequest("'to' must be after 'from'");
+        }
+        long nights = ChronoUnit.DAYS.between(from, to);
+        if (nights > MAX_OCCUPANCY_NIGHTS) {
+            throw CustomResponseException.BadRequest("Occupancy range cannot exceed " + MAX_OCCUPANCY_NIGHTS + " nights");
+        }
+        if (!hotelRepo.existsById(hotelId)) {
+            throw CustomResponseException.ResourceNotFound("Hotel not found with this ID: " + hotelId);
+        }
+
+        try (Stream<Object[]> rows = hotelRepo.streamOccupancy(hotelId, from, to);
+             JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringField("status", GlobalResponse.SUCCESS);
+            json.writeObjectFieldStart("data");
+            json.writeStringField("hotelId", hotelId.toString());
+            json.writeStringField("from", from.toString());
+            json.writeStringField("to", to.toString());
+            json.writeArrayFieldStart("rows");
+
+            Object[] unit = null;
+            char[] grid = new char[(int) nights];
+            Iterator<Object[]> it = rows.iterator();
+            while (it.hasNext()) {
+                Object[] row = it.next();
+                if (unit == null || !unit[1].equals(row[1])) {
+                    if (unit != null) {
+                        writeOccupancyRow(json, unit, grid);
+                    }
+                    unit = row;
+                    Arrays.fill(grid, '1');
+                }
+                if (row[3] != null) {
+                    int firstNight = Math.max(((Number) row[3]).intValue(), 0);
+                    int endNight = Math.min(((Number) row[4]).intValue(), grid.length);
+                    Arrays.fill(grid, firstNight, endNight, '0');
+                }
+            }
+            if (unit != null) {
+                writeOccupancyRow(json, unit, grid);
+            }
+
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeNullField("errors");
+            json.writeEndObject();
+        }
+    }
+
+
+    // ==================== PRIVATE HELPER METHODS ====================
+    private void writeOccupancyRow(JsonGenerator json, Object[] unit, char[] grid) throws IOException {
+        int occupied = 0;
+        for (char night : grid) {
+            if (night == '0') {
+                occupied++;
+            }
+        }
+
+        json.writeStartObject();
+        json.writeStringField("unitType", (String) unit[0]);
+        json.writeStringField("unitId", unit[1].toString());
+        json.writeStringField("unitNumber", (String) unit[2]);
+        json.writeStringField("nights", new String(grid));
+        json.writeNumberField("occupiedNights", occupied);
+        json.writeEndObject();
+    }
+
 
 }
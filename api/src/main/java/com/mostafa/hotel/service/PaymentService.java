@@ -1,6 +1,7 @@
 package com.mostafa.hotel.service;
 
 
+import com.mostafa.hotel.dto.CursorPage;
 import com.mostafa.hotel.dto.payment.CreatePaymentDTO;
 import com.mostafa.hotel.dto.payment.PayShortageDTO;
 import com.mostafa.hotel.dto.payment.PaymentResponseDTO;
@@ -14,15 +15,17 @@ import com.mostafa.hotel.model.User;
 import com.mostafa.hotel.repository.BookingRepo;
 import com.mostafa.hotel.repository.PaymentRepo;
 import com.mostafa.hotel.utils.CurrentUser;
+import com.mostafa.hotel.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 
@@ -55,7 +58,7 @@ public class PaymentService {
             throw CustomResponseException.BadRequest("Can only create payment for pending bookings");
         }
 
-        BigDecimal expectedAmount = calculateTotalAmount(booking);
+        BigDecimal expectedAmount = booking.getTotalAmount();
 
         Payment payment = mapper.toPaymentEntity(dto);
         payment.setBooking(booking);
@@ -115,7 +118,7 @@ public class PaymentService {
             throw CustomResponseException.BadRequest("Booking must have partial payment status to pay shortage");
         }
 
-        BigDecimal expectedAmount = calculateTotalAmount(booking);
+        BigDecimal expectedAmount = booking.getTotalAmount();
         BigDecimal shortage = expectedAmount.subtract(payment.getAmount());
 
         int comparison = dto.shortageAmount().compareTo(shortage);
@@ -181,35 +184,23 @@ public class PaymentService {
     // Get All for ADMIN && MANAGER
     public Page<PaymentResponseDTO> getAllPayments(int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<Payment> paymentsPage = paymentRepo.findAll(pageable);
+        Page<Payment> paymentsPage = paymentRepo.findAllWithDetails(pageable);
 
         return paymentsPage.map(mapper::toPaymentResponseDTO);
     }
 
+    // Get All for ADMIN && MANAGER -> keyset page (newest first), blank cursor = first page
+    public CursorPage<PaymentResponseDTO> getAllPaymentsAfter(String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable pageable = PageRequest.of(0, size, Sort.by(Sort.Order.desc("createdDate"), Sort.Order.desc("id")));
 
-    // ==================== PRIVATE HELPER METHOD ====================
-    // Calculate total amount based on booking
-    private BigDecimal calculateTotalAmount(Booking booking) {
-        long numberOfNights = ChronoUnit.DAYS.between(
-                booking.getCheckInDate(),
-                booking.getCheckOutDate()
+        Slice<Payment> paymentsSlice = paymentRepo.findPageAfter(
+                after == null ? null : after.sortValueAsDateTime(),
+                after == null ? null : after.id(),
+                pageable
         );
 
-        if (numberOfNights <= 0) {
-            throw CustomResponseException.BadRequest("Invalid booking dates");
-        }
-
-        BigDecimal pricePerNight;
-
-        if (booking.isApartmentBooking()) {
-            pricePerNight = booking.getApartment().getPricePerNight();
-        } else if (booking.isRoomBooking()) {
-            pricePerNight = booking.getRoom().getPricePerNight();
-        } else {
-            throw CustomResponseException.BadRequest("Invalid booking type");
-        }
-
-        return pricePerNight.multiply(BigDecimal.valueOf(numberOfNights));
+        return CursorPage.of(paymentsSlice, mapper::toPaymentResponseDTO, p -> KeysetCursor.encode(p.getCreatedDate(), p.getId()));
     }
 
 
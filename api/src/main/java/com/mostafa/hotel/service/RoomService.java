@@ -1,5 +1,8 @@
 package com.mostafa.hotel.service;
 
+import com.mostafa.hotel.dto.CursorPage;
+import com.mostafa.hotel.dto.FacetedSlice;
+import com.mostafa.hotel.dto.availability.AvailabilityCalendarDTO;
 import com.mostafa.hotel.dto.room.CreateRoomDTO;
 import com.mostafa.hotel.dto.room.RoomResponseDTO;
 import com.mostafa.hotel.dto.room.UpdateRoomDTO;
@@ -11,25 +14,46 @@ import com.mostafa.hotel.model.Hotel;
 import com.mostafa.hotel.model.Room;
 import com.mostafa.hotel.repository.ApartmentRepo;
 import com.mostafa.hotel.repository.HotelRepo;
+import com.mostafa.hotel.repository.RoomAvailabilityRepo;
 import com.mostafa.hotel.repository.RoomRepo;
+import com.mostafa.hotel.search.CatalogHits;
+import com.mostafa.hotel.search.CatalogIndex;
+import com.mostafa.hotel.search.CatalogQuery;
+import com.mostafa.hotel.specification.RoomSpecs;
+import com.mostafa.hotel.utils.CountCache;
+import com.mostafa.hotel.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 
 @Service
 @RequiredArgsConstructor
 public class RoomService {
+    private static final int MAX_CALENDAR_NIGHTS = 366;
+
     private final RoomRepo roomRepo;
     private final ApartmentRepo apartmentRepo;
     private final HotelRepo hotelRepo;
+    private final RoomAvailabilityRepo roomAvailabilityRepo;
+    private final AvailabilityIndex availabilityIndex;
     private final EntityDtoMapper mapper;
+    private final CountCache countCache;
+    private final CatalogIndex catalogIndex;
 
 
     //  Create
@@ -52,6 +76,8 @@ public class RoomService {
 
         Room room = mapper.toRoomEntity(dto, hotel, apartment);
         Room savedRoom = roomRepo.save(room);
+        catalogIndex.roomSaved(savedRoom.getId());
+        countCache.invalidateAllAfterCommit();
 
         return mapper.toRoomResponseDTO(savedRoom);
     }
@@ -116,6 +142,8 @@ public class RoomService {
 
 
         Room updatedRoom = roomRepo.save(existingRoom);
+        catalogIndex.roomSaved(roomId);
+        countCache.invalidateAllAfterCommit();
 
         return mapper.toRoomResponseDTO(updatedRoom);
     }
@@ -126,6 +154,8 @@ public class RoomService {
                 .orElseThrow(() -> CustomResponseException.ResourceNotFound("Room not found with this ID: " + roomId));
 
         roomRepo.delete(room);
+        catalogIndex.roomDeleted(roomId);
+        countCache.invalidateAllAfterCommit();
 
         return "Room Deleted Success 🤞";
     }
@@ -138,8 +168,32 @@ public class RoomService {
         return mapper.toRoomResponseDTO(room);
     }
 
-    //    Get All
-    public Page<RoomResponseDTO> getAll(
+    //  Availability calendar for [from, to) -> one char per night, from the in-memory index (one query otherwise)
+    public AvailabilityCalendarDTO getRoomCalendar(UUID roomId, LocalDate from, LocalDate to) {
+        if (!from.isBefore(to)) {
+            throw CustomResponseException.BadRequest("'to' must be after 'from'");
+        }
+        long nights = ChronoUnit.DAYS.between(from, to);
+        if (nights > MAX_CALENDAR_NIGHTS) {
+            throw CustomResponseException.BadRequest("Calendar range cannot exceed " + MAX_CALENDAR_NIGHTS + " nights");
+        }
+
+        Room room = roomRepo.findById(roomId)
+                .orElseThrow(() -> CustomResponseException.ResourceNotFound("Room not found with this ID: " + roomId));
+
+        List<Integer> takenNights = availabilityIndex.roomTakenNights(roomId, from, to)
+                .orElseGet(() -> roomAvailabilityRepo.findUnavailableNightOffsets(roomId, from, (int) nights));
+
+        return AvailabilityCalendarDTO.of(roomId, from, to, room.getPricePerNight(), takenNights);
+    }
+
+    /*
+     * Get All
+     * withFacets -> also count every filter dimension (room type, amenities, city, price band) over the
+     * whole result set, so a search UI gets its checkbox counts from the same request as the page
+     * (room type and city are single-select -> counted over every other filter, so the other values stay listed)
+     */
+    public FacetedSlice<RoomResponseDTO> getAll(
             String roomNumber,
             RoomType roomType,
             BigDecimal minPrice,
@@ -153,20 +207,56 @@ public class RoomService {
             Boolean hasMiniBar,
             Boolean hasBalcony,
             Boolean hasPrivateBathroom,
+            String city,
+            LocalDate checkIn,
+            LocalDate checkOut,
             int page,
             int size,
             String sortBy,
-            String direction
+            String direction,
+            boolean withTotal,
+            boolean withFacets
     ) {
+        validateStayRange(checkIn, checkOut);
+
         Sort sort = direction.equalsIgnoreCase("DESC")
                 ? Sort.by(sortBy).descending()
                 : Sort.by(sortBy).ascending();
 
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Room> roomsPage = roomRepo.advancedSearchAllRooms(
+        // Catalog index 🔎 -> answers attribute-only searches when enabled (stay dates need the booking tables)
+        if (checkIn == null) {
+            CatalogQuery query = CatalogQuery.rooms()
+                    .contains("roomNumber", roomNumber)
+                    .equal("roomType", roomType)
+                    .between("pricePerNight", minPrice, maxPrice)
+                    .between("capacity", minCapacity, maxCapacity)
+                    .equal("isAvailable", isAvailable)
+                    .equal("hasWifi", hasWifi)
+                    .equal("hasAirConditioning", hasAirConditioning)
+                    .equal("hasTv", hasTv)
+                    .equal("hasMiniBar", hasMiniBar)
+                    .equal("hasBalcony", hasBalcony)
+                    .equal("hasPrivateBathroom", hasPrivateBathroom)
+                    .equal("city", city);
+            if (withFacets) {
+                query.facets("roomType", "amenities", "city", "pricePerNight");
+            }
+
+            Optional<CatalogHits> hits = catalogIndex.search(query, pageable);
+            if (hits.isPresent()) {
+                List<Room> rooms = hits.get().inHitOrder(roomRepo.findAllByIdIn(hits.get().ids()), Room::getId);
+                return new FacetedSlice<>(
+                        new PageImpl<>(rooms.stream().map(mapper::toRoomResponseDTO).toList(), pageable, hits.get().total()),
+                        hits.get().facets());
+            }
+        }
+
+        // Room type and city are added last -> facets count each of them without its own filter
+        Specification<Room> otherFilters = RoomSpecs.filter(
                 roomNumber,
-                roomType,
+                null,
                 minPrice,
                 maxPrice,
                 minCapacity,
@@ -177,11 +267,97 @@ public class RoomService {
                 hasTv,
                 hasMiniBar,
                 hasBalcony,
+                hasPrivateBathroom
+        )
+                .and(RoomSpecs.freeBetween(checkIn, checkOut));
+        Specification<Room> spec = otherFilters
+                .and(RoomSpecs.ofType(roomType))
+                .and(RoomSpecs.inCity(city));
+
+        Slice<RoomResponseDTO> rooms = roomRepo.findBy(spec, q -> q.slice(pageable)).map(mapper::toRoomResponseDTO);
+        Map<String, Map<String, Long>> facets = withFacets ? roomRepo.countFacets(otherFilters, roomType, city) : null;
+
+        if (!withTotal) {
+            return new FacetedSlice<>(rooms, facets);
+        }
+
+        // Totals only on request -> the COUNT runs once per filter set per TTL, not once per page
+        RoomSearchKey key = new RoomSearchKey(
+                roomNumber == null || roomNumber.isEmpty() ? null : roomNumber.toLowerCase(),
+                roomType,
+                minPrice == null ? null : minPrice.stripTrailingZeros(),
+                maxPrice == null ? null : maxPrice.stripTrailingZeros(),
+                minCapacity,
+                maxCapacity,
+                isAvailable,
+                hasWifi,
+                hasAirConditioning,
+                hasTv,
+                hasMiniBar,
+                hasBalcony,
                 hasPrivateBathroom,
-                pageable
+                city == null || city.isEmpty() ? null : city.toLowerCase(),
+                checkIn,
+                checkOut
         );
+        long total = countCache.get(key, () -> roomRepo.count(spec));
 
-        return roomsPage.map(mapper::toRoomResponseDTO);
+        return new FacetedSlice<>(new PageImpl<>(rooms.getContent(), pageable, totalAgreeingWith(rooms, total)), facets);
+    }
+
+    /*
+     * Get All -> keyset page (cheapest first), blank cursor = first page
+     * Same filters as getAll, but no COUNT and no OFFSET -> sortBy/direction don't apply here
+     */
+    public CursorPage<RoomResponseDTO> getAllAfter(
+            String roomNumber,
+            RoomType roomType,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Integer minCapacity,
+            Integer maxCapacity,
+            Boolean isAvailable,
+            Boolean hasWifi,
+            Boolean hasAirConditioning,
+            Boolean hasTv,
+            Boolean hasMiniBar,
+            Boolean hasBalcony,
+            Boolean hasPrivateBathroom,
+            String city,
+            LocalDate checkIn,
+            LocalDate checkOut,
+            String cursor,
+            int size
+    ) {
+        validateStayRange(checkIn, checkOut);
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable pageable = PageRequest.of(0, size, Sort.by(Sort.Order.asc("pricePerNight"), Sort.Order.asc("id")));
+
+        Specification<Room> spec = RoomSpecs.filter(
+                roomNumber,
+                roomType,
+                minPrice,
+                maxPrice,
+                minCapacity,
+                maxCapacity,
+                isAvailable,
+                hasWifi,
+                hasAirConditioning,
+                hasTv,
+                hasMiniBar,
+                hasBalcony,
+                hasPrivateBathroom
+        )
+                .and(RoomSpecs.inCity(city))
+                .and(RoomSpecs.freeBetween(checkIn, checkOut))
+                .and(RoomSpecs.cheaperFirstAfter(
+                        after == null ? null : after.sortValueAsDecimal(),
+                        after == null ? null : after.id()));
+
+        Slice<Room> roomsSlice = roomRepo.findBy(spec, q -> q.slice(pageable));
+
+        return CursorPage.of(roomsSlice, mapper::toRoomResponseDTO, r -> KeysetCursor.encode(r.getPricePerNight(), r.getId()));
     }
 
 
@@ -216,8 +392,7 @@ public class RoomService {
 
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Room> roomsPage = roomRepo.searchRoomsForApartment(
-                apartmentId,
+        Specification<Room> spec = RoomSpecs.filter(
                 roomNumber,
                 roomType,
                 minPrice,
@@ -230,9 +405,10 @@ public class RoomService {
                 hasTv,
                 hasMiniBar,
                 hasBalcony,
-                hasPrivateBathroom,
-                pageable
-        );
+                hasPrivateBathroom
+        ).and(RoomSpecs.inApartment(apartmentId));
+
+        Page<Room> roomsPage = roomRepo.findAll(spec, pageable);
 
         return roomsPage.map(mapper::toRoomResponseDTO);
     }
@@ -257,19 +433,22 @@ public class RoomService {
             Boolean hasMiniBar,
             Boolean hasBalcony,
             Boolean hasPrivateBathroom,
+            LocalDate checkIn,
+            LocalDate checkOut,
             int page,
             int size,
             String sortBy,
             String direction
     ) {
+        validateStayRange(checkIn, checkOut);
+
         Sort sort = direction.equalsIgnoreCase("DESC")
                 ? Sort.by(sortBy).descending()
                 : Sort.by(sortBy).ascending();
 
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Room> roomsPage = roomRepo.searchStandaloneRooms(
-                hotelId,
+        Specification<Room> spec = RoomSpecs.filter(
                 roomNumber,
                 roomType,
                 minPrice,
@@ -282,12 +461,58 @@ public class RoomService {
                 hasTv,
                 hasMiniBar,
                 hasBalcony,
-                hasPrivateBathroom,
-                pageable
-        );
+                hasPrivateBathroom
+        )
+                .and(RoomSpecs.standalone())
+                .and(RoomSpecs.inHotel(hotelId))
+                .and(RoomSpecs.freeBetween(checkIn, checkOut));
+
+        Page<Room> roomsPage = roomRepo.findAll(spec, pageable);
 
         return roomsPage.map(mapper::toRoomResponseDTO);
     }
 
 
+    // ==================== PRIVATE HELPER METHODS ====================
+    // Cached total can be stale -> bend it to what this page saw, so hasNext / totalPages never contradict the rows
+    private long totalAgreeingWith(Slice<?> page, long cachedTotal) {
+        long seen = page.getPageable().getOffset() + page.getNumberOfElements();
+        if (page.hasNext()) {
+            return Math.max(cachedTotal, seen + 1);
+        }
+        return page.hasContent() ? seen : Math.min(cachedTotal, page.getPageable().getOffset());
+    }
+
+    // Both dates or neither -> units are filtered to those free for every night in [checkIn, checkOut)
+    private void validateStayRange(LocalDate checkIn, LocalDate checkOut) {
+        if ((checkIn == null) != (checkOut == null)) {
+            throw CustomResponseException.BadRequest("checkIn and checkOut must be provided together");
+        }
+        if (checkIn != null && !checkIn.isBefore(checkOut)) {
+            throw CustomResponseException.BadRequest("Check-out date must be after check-in date");
+        }
+    }
+
+    // Cache key for search totals -> filters normalized so equivalent searches share one count
+    private record RoomSearchKey(
+            String roomNumber,
+            RoomType roomType,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Integer minCapacity,
+            Integer maxCapacity,
+            Boolean isAvailable,
+            Boolean hasWifi,
+            Boolean hasAirConditioning,
+            Boolean hasTv,
+            Boolean hasMiniBar,
+            Boolean hasBalcony,
+            Boolean hasPrivateBathroom,
+            String city,
+            LocalDate checkIn,
+            LocalDate checkOut
+    ) {
+    }
+
+
 }
@@ -0,0 +1,84 @@
+package com.mostafa.hotel.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.mostafa.hotel.repository.UserRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+
+
+/*
+ * Token revocation for stateless mode 🔁
+ * users.token_version is the source of truth: tokens carry the version from login and stop working
+ * once revoke() bumps the column (or the user row is gone). Every instance caches the current version
+ * per user for security.token-version.ttl, so an active user costs one tiny users query per TTL instead
+ * of one per request, and a revocation made on another instance (or before a restart) is seen within
+ * that TTL. Revocations made here are visible right after commit.
+ */
+@Service
+public class TokenVersions {
+    private static final int DELETED = -1;
+
+    private final UserRepo userRepo;
+    private final CustomUserDetailsService userDetailsService;
+    private final LoadingCache<UUID, Integer> versions;
+
+
+    public TokenVersions(UserRepo userRepo,
+                         CustomUserDetailsService userDetailsService,
+                         MeterRegistry meterRegistry,
+                         @Value("${security.token-version.ttl:PT30S}") Duration ttl,
+                         @Value("${security.token-version.max-size:10000}") long maxSize) {
+        this.userRepo = userRepo;
+        this.userDetailsService = userDetailsService;
+        this.versions = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build(userId -> userRepo.findTokenVersion(userId).orElse(DELETED));
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, "security.token-version");
+    }
+
+
+    public boolean isCurrent(UUID userId, int tokenVersion) {
+        return versions.get(userId) == tokenVersion;
+    }
+
+    // Every token issued so far stops working (logout, ...)
+    @Transactional
+    public void revoke(UUID userId, String email) {
+        userRepo.incrementTokenVersion(userId);
+        forget(userId, email);
+    }
+
+    // Row is gone -> the next check reads "no version" and rejects the user's tokens
+    public void userDeleted(UUID userId, String email) {
+        forget(userId, email);
+    }
+
+
+    // ==================== PRIVATE HELPER METHODS ====================
+    // Drop the local copies now and again after commit (a concurrent request may re-read the old row)
+    private void forget(UUID userId, String email) {
+        versions.invalidate(userId);
+        userDetailsService.evict(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versions.invalidate(userId);
+                }
+            });
+        }
+    }
+
+
+}
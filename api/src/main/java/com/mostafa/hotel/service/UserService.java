@@ -1,5 +1,6 @@
 package com.mostafa.hotel.service;
 
+import com.mostafa.hotel.dto.CursorPage;
 import com.mostafa.hotel.dto.user.UpdateUserDTO;
 import com.mostafa.hotel.dto.user.UserResponseDTO;
 import com.mostafa.hotel.global.CustomResponseException;
@@ -7,10 +8,13 @@ import com.mostafa.hotel.mapper.EntityDtoMapper;
 import com.mostafa.hotel.model.User;
 import com.mostafa.hotel.repository.UserRepo;
 import com.mostafa.hotel.utils.CurrentUser;
+import com.mostafa.hotel.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.util.UUID;
@@ -22,6 +26,8 @@ public class UserService {
     private final UserRepo userRepo;
     private final EntityDtoMapper mapper;
     private final CurrentUser currentUser;
+    private final CustomUserDetailsService userDetailsService;
+    private final TokenVersions tokenVersions;
 
 
     //    Update
@@ -35,16 +41,18 @@ public class UserService {
         existingUser.setProfileImageUrl(dto.profileImageUrl());
 
         User updatedUser = userRepo.save(existingUser);
+        userDetailsService.evict(updatedUser.getEmail());
 
         return mapper.toUserResponseDTO(updatedUser);
     }
 
     //    Delete ((userId))
     public String deleteByUserId(UUID userId) {
-        userRepo.findById(userId)
+        User user = userRepo.findById(userId)
                 .orElseThrow(() -> CustomResponseException.ResourceNotFound("User Not Found with This ID:  " + userId));
 
         userRepo.deleteById(userId);
+        tokenVersions.userDeleted(userId, user.getEmail());
         return "User Deleted Success with this ID: " + userId;
     }
 
@@ -56,6 +64,20 @@ public class UserService {
         return usersPage.map(mapper::toUserResponseDTO);
     }
 
+    //    Get All -> keyset page (newest first), blank cursor = first page
+    public CursorPage<UserResponseDTO> getAllUsersAfter(String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable pageable = PageRequest.of(0, size, Sort.by(Sort.Order.desc("createdDate"), Sort.Order.desc("id")));
+
+        Slice<User> usersSlice = userRepo.findPageAfter(
+                after == null ? null : after.sortValueAsDateTime(),
+                after == null ? null : after.id(),
+                pageable
+        );
+
+        return CursorPage.of(usersSlice, mapper::toUserResponseDTO, u -> KeysetCursor.encode(u.getCreatedDate(), u.getId()));
+    }
+
     //    Get By ((userId)
     public UserResponseDTO getByUserId(UUID userId) {
         User user = userRepo.findById(userId)
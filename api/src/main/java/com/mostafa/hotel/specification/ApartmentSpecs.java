@@ -0,0 +1,125 @@
+package com.mostafa.hotel.specification;
+
+import com.mostafa.hotel.enums.ApartmentAmenity;
+import com.mostafa.hotel.enums.ApartmentType;
+import com.mostafa.hotel.enums.BookingStatus;
+import com.mostafa.hotel.model.Apartment;
+import com.mostafa.hotel.model.ApartmentAvailability;
+import com.mostafa.hotel.model.Booking;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+
+/*
+ * 🏠 Apartment search -> same idea as RoomSpecs, only supplied filters reach the SQL
+ */
+public final class ApartmentSpecs {
+
+    private ApartmentSpecs() {
+    }
+
+
+    //     Attribute filters (every parameter optional)
+    public static Specification<Apartment> filter(
+            String apartmentNumber,
+            String name,
+            ApartmentType apartmentType,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Integer minCapacity,
+            Integer maxCapacity,
+            Integer minBedrooms,
+            Integer maxBedrooms,
+            Integer minBathrooms,
+            Integer maxBathrooms,
+            Integer floorNumber,
+            BigDecimal minArea,
+            BigDecimal maxArea,
+            Boolean isAvailable,
+            Boolean roomsBookableSeparately,
+            Boolean hasKitchen,
+            Boolean hasLivingRoom,
+            Boolean hasDiningArea,
+            Boolean hasBalcony,
+            Boolean hasWifi,
+            Boolean hasAirConditioning,
+            Boolean hasParking,
+            Boolean hasLaundry
+    ) {
+        return (a, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            Filters.contains(predicates, cb, a.get("apartmentNumber"), apartmentNumber);
+            Filters.contains(predicates, cb, a.get("name"), name);
+            Filters.equal(predicates, cb, a.get("apartmentType"), apartmentType);
+            Filters.atLeast(predicates, cb, a.get("pricePerNight"), minPrice);
+            Filters.atMost(predicates, cb, a.get("pricePerNight"), maxPrice);
+            Filters.atLeast(predicates, cb, a.get("totalCapacity"), minCapacity);
+            Filters.atMost(predicates, cb, a.get("totalCapacity"), maxCapacity);
+            Filters.atLeast(predicates, cb, a.get("numberOfBedrooms"), minBedrooms);
+            Filters.atMost(predicates, cb, a.get("numberOfBedrooms"), maxBedrooms);
+            Filters.atLeast(predicates, cb, a.get("numberOfBathrooms"), minBathrooms);
+            Filters.atMost(predicates, cb, a.get("numberOfBathrooms"), maxBathrooms);
+            Filters.equal(predicates, cb, a.get("floorNumber"), floorNumber);
+            Filters.atLeast(predicates, cb, a.get("areaSqm"), minArea);
+            Filters.atMost(predicates, cb, a.get("areaSqm"), maxArea);
+            Filters.equal(predicates, cb, a.get("isAvailable"), isAvailable);
+            Filters.equal(predicates, cb, a.get("roomsBookableSeparately"), roomsBookableSeparately);
+            Filters.amenities(predicates, cb, a.get("amenities"), ApartmentAmenity.values(),
+                    hasKitchen, hasLivingRoom, hasDiningArea, hasBalcony, hasWifi, hasAirConditioning, hasParking, hasLaundry);
+
+            return Filters.all(predicates, cb);
+        };
+    }
+
+    /*
+     * Anti-join when checkIn/checkOut are given 🤞
+     * keeps only apartments with no non-cancelled booking overlapping [checkIn, checkOut)
+     * and no blocked night in that range.
+     */
+    public static Specification<Apartment> freeBetween(LocalDate checkIn, LocalDate checkOut) {
+        if (checkIn == null) {
+            return null;
+        }
+
+        return (a, query, cb) -> {
+            Subquery<Long> overlapping = query.subquery(Long.class);
+            Root<Booking> b = overlapping.from(Booking.class);
+            overlapping.select(cb.literal(1L)).where(
+                    cb.equal(b.get("apartment"), a),
+                    cb.notEqual(b.get("status"), cb.literal(BookingStatus.CANCELLED)),
+                    cb.lessThan(b.get("checkInDate"), checkOut),
+                    cb.greaterThan(b.get("checkOutDate"), checkIn));
+
+            Subquery<Long> blocked = query.subquery(Long.class);
+            Root<ApartmentAvailability> aa = blocked.from(ApartmentAvailability.class);
+            blocked.select(cb.literal(1L)).where(
+                    cb.equal(aa.get("apartment"), a),
+                    cb.isFalse(aa.get("isAvailable")),
+                    cb.greaterThanOrEqualTo(aa.get("date"), checkIn),
+                    cb.lessThan(aa.get("date"), checkOut));
+
+            return cb.and(cb.not(cb.exists(overlapping)), cb.not(cb.exists(blocked)));
+        };
+    }
+
+    public static Specification<Apartment> inHotel(UUID hotelId) {
+        return hotelId == null ? null : (a, query, cb) -> cb.equal(a.get("hotel").get("id"), hotelId);
+    }
+
+    // City of the unit's hotel, case-insensitive (blank = no filter)
+    public static Specification<Apartment> inCity(String city) {
+        return city == null || city.isEmpty() ? null
+                : (a, query, cb) -> cb.equal(cb.lower(a.get("hotel").get("city")), city.toLowerCase());
+    }
+
+
+}
@@ -0,0 +1,79 @@
+package com.mostafa.hotel.specification;
+
+import com.mostafa.hotel.enums.Amenity;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+import java.util.List;
+
+
+/*
+ * Predicate helpers shared by the search specifications 🧩
+ * Each one adds its predicate only when the filter was supplied, so the generated SQL carries
+ * exactly the conditions the caller asked for (no "? IS NULL OR ..." for the planner to see through).
+ */
+final class Filters {
+
+    private Filters() {
+    }
+
+
+    // Case-insensitive "contains" (blank = no filter)
+    static void contains(List<Predicate> predicates, CriteriaBuilder cb, Expression<String> path, String value) {
+        if (value != null && !value.isEmpty()) {
+            predicates.add(cb.like(cb.lower(path), "%" + value.toLowerCase() + "%"));
+        }
+    }
+
+    // Case-sensitive "contains" (blank = no filter)
+    static void containsExact(List<Predicate> predicates, CriteriaBuilder cb, Expression<String> path, String value) {
+        if (value != null && !value.isEmpty()) {
+            predicates.add(cb.like(path, "%" + value + "%"));
+        }
+    }
+
+    static <Y> void equal(List<Predicate> predicates, CriteriaBuilder cb, Expression<Y> path, Y value) {
+        if (value != null) {
+            predicates.add(cb.equal(path, value));
+        }
+    }
+
+    static <Y extends Comparable<? super Y>> void atLeast(List<Predicate> predicates, CriteriaBuilder cb, Expression<? extends Y> path, Y value) {
+        if (value != null) {
+            predicates.add(cb.greaterThanOrEqualTo(path, value));
+        }
+    }
+
+    static <Y extends Comparable<? super Y>> void atMost(List<Predicate> predicates, CriteriaBuilder cb, Expression<? extends Y> path, Y value) {
+        if (value != null) {
+            predicates.add(cb.lessThanOrEqualTo(path, value));
+        }
+    }
+
+    /*
+     * Amenity flags of one bitmask column (flags[i] -> amenities[i], null = don't care) as one predicate
+     *   bitand(mask, <checked bits>) = <wanted values of those bits>
+     * -> one bound parameter whatever the number of flags (the checked bits are inlined like in the facet
+     *    counts), instead of an IN-list of every mask value that matches
+     */
+    static void amenities(List<Predicate> predicates, CriteriaBuilder cb, Expression<Integer> mask, Amenity[] amenities, Boolean... flags) {
+        int checked = 0;
+        int required = 0;
+        for (int i = 0; i < amenities.length; i++) {
+            if (flags[i] != null) {
+                checked |= amenities[i].bit();
+                required = amenities[i].set(required, flags[i]);
+            }
+        }
+        if (checked != 0) {
+            predicates.add(cb.equal(cb.function("bitand", Integer.class, mask, cb.literal(checked)), required));
+        }
+    }
+
+    static Predicate all(List<Predicate> predicates, CriteriaBuilder cb) {
+        return cb.and(predicates.toArray(Predicate[]::new));
+    }
+
+
+}
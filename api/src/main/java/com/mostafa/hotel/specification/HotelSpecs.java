@@ -0,0 +1,42 @@
+package com.mostafa.hotel.specification;
+
+import com.mostafa.hotel.model.Hotel;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/*
+ * 🏢 Hotel search -> only supplied filters reach the SQL
+ */
+public final class HotelSpecs {
+
+    private HotelSpecs() {
+    }
+
+
+    //     Attribute filters (every parameter optional)
+    public static Specification<Hotel> filter(
+            String name,
+            String city,
+            String country,
+            String phoneNumber,
+            Boolean isActive
+    ) {
+        return (h, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            Filters.contains(predicates, cb, h.get("name"), name);
+            Filters.contains(predicates, cb, h.get("city"), city);
+            Filters.contains(predicates, cb, h.get("country"), country);
+            Filters.containsExact(predicates, cb, h.get("phoneNumber"), phoneNumber);
+            Filters.equal(predicates, cb, h.get("isActive"), isActive);
+
+            return Filters.all(predicates, cb);
+        };
+    }
+
+
+}
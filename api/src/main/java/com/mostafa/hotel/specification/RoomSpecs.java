@@ -0,0 +1,134 @@
+package com.mostafa.hotel.specification;
+
+import com.mostafa.hotel.enums.BookingStatus;
+import com.mostafa.hotel.enums.RoomAmenity;
+import com.mostafa.hotel.enums.RoomType;
+import com.mostafa.hotel.model.Booking;
+import com.mostafa.hotel.model.Room;
+import com.mostafa.hotel.model.RoomAvailability;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+
+/*
+ * 🏨 Room search -> compose only the pieces a request actually uses
+ * e.g. RoomSpecs.filter(...).and(RoomSpecs.freeBetween(checkIn, checkOut)).and(RoomSpecs.inHotel(hotelId))
+ * A piece that has nothing to filter returns null, which Specification.and(...) skips.
+ */
+public final class RoomSpecs {
+
+    private RoomSpecs() {
+    }
+
+
+    //     Attribute filters (every parameter optional)
+    public static Specification<Room> filter(
+            String roomNumber,
+            RoomType roomType,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Integer minCapacity,
+            Integer maxCapacity,
+            Boolean isAvailable,
+            Boolean hasWifi,
+            Boolean hasAirConditioning,
+            Boolean hasTv,
+            Boolean hasMiniBar,
+            Boolean hasBalcony,
+            Boolean hasPrivateBathroom
+    ) {
+        return (r, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            Filters.contains(predicates, cb, r.get("roomNumber"), roomNumber);
+            Filters.equal(predicates, cb, r.get("roomType"), roomType);
+            Filters.atLeast(predicates, cb, r.get("pricePerNight"), minPrice);
+            Filters.atMost(predicates, cb, r.get("pricePerNight"), maxPrice);
+            Filters.atLeast(predicates, cb, r.get("capacity"), minCapacity);
+            Filters.atMost(predicates, cb, r.get("capacity"), maxCapacity);
+            Filters.equal(predicates, cb, r.get("isAvailable"), isAvailable);
+            Filters.amenities(predicates, cb, r.get("amenities"), RoomAmenity.values(),
+                    hasWifi, hasAirConditioning, hasTv, hasMiniBar, hasBalcony, hasPrivateBathroom);
+
+            return Filters.all(predicates, cb);
+        };
+    }
+
+    /*
+     * Anti-join when checkIn/checkOut are given 🤞
+     * keeps only rooms with no non-cancelled booking overlapping [checkIn, checkOut)
+     * and no blocked night in that range, so pagination and totals stay correct.
+     * (the service passes both dates or neither)
+     */
+    public static Specification<Room> freeBetween(LocalDate checkIn, LocalDate checkOut) {
+        if (checkIn == null) {
+            return null;
+        }
+
+        return (r, query, cb) -> {
+            Subquery<Long> overlapping = query.subquery(Long.class);
+            Root<Booking> b = overlapping.from(Booking.class);
+            overlapping.select(cb.literal(1L)).where(
+                    cb.equal(b.get("room"), r),
+                    cb.notEqual(b.get("status"), cb.literal(BookingStatus.CANCELLED)),
+                    cb.lessThan(b.get("checkInDate"), checkOut),
+                    cb.greaterThan(b.get("checkOutDate"), checkIn));
+
+            Subquery<Long> blocked = query.subquery(Long.class);
+            Root<RoomAvailability> ra = blocked.from(RoomAvailability.class);
+            blocked.select(cb.literal(1L)).where(
+                    cb.equal(ra.get("room"), r),
+                    cb.isFalse(ra.get("isAvailable")),
+                    cb.greaterThanOrEqualTo(ra.get("date"), checkIn),
+                    cb.lessThan(ra.get("date"), checkOut));
+
+            return cb.and(cb.not(cb.exists(overlapping)), cb.not(cb.exists(blocked)));
+        };
+    }
+
+    public static Specification<Room> ofType(RoomType roomType) {
+        return roomType == null ? null : (r, query, cb) -> cb.equal(r.get("roomType"), roomType);
+    }
+
+    public static Specification<Room> inHotel(UUID hotelId) {
+        return hotelId == null ? null : (r, query, cb) -> cb.equal(r.get("hotel").get("id"), hotelId);
+    }
+
+    // City of the unit's hotel, case-insensitive (blank = no filter)
+    public static Specification<Room> inCity(String city) {
+        return city == null || city.isEmpty() ? null
+                : (r, query, cb) -> cb.equal(cb.lower(r.get("hotel").get("city")), city.toLowerCase());
+    }
+
+    public static Specification<Room> inApartment(UUID apartmentId) {
+        return apartmentId == null ? null : (r, query, cb) -> cb.equal(r.get("apartment").get("id"), apartmentId);
+    }
+
+    //     Rooms not belonging to any apartment
+    public static Specification<Room> standalone() {
+        return (r, query, cb) -> cb.isNull(r.get("apartment"));
+    }
+
+    //     Keyset seek -> rows strictly after (lastPrice, lastId) in (pricePerNight ASC, id ASC) order, null = first page
+    public static Specification<Room> cheaperFirstAfter(BigDecimal lastPrice, UUID lastId) {
+        if (lastPrice == null) {
+            return null;
+        }
+
+        return (r, query, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(r.get("pricePerNight"), lastPrice),
+                cb.or(
+                        cb.greaterThan(r.get("pricePerNight"), lastPrice),
+                        cb.greaterThan(r.get("id"), lastId)));
+    }
+
+
+}
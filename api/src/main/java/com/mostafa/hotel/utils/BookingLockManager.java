@@ -0,0 +1,127 @@
+package com.mostafa.hotel.utils;
+
+import com.mostafa.hotel.global.CustomResponseException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+
+/*
+ * In-JVM lock per booked unit (room or apartment ID) 🔒
+ * Bookings for the same unit queue here instead of piling up on the database row lock,
+ * bookings for different units never share a lock.
+ * Take it before the booking transaction starts (withLock outside a transaction): a queued booking
+ * then holds no transaction and no pooled connection while it waits.
+ */
+@Component
+public class BookingLockManager {
+    private final Map<UUID, UnitLock> locks = new ConcurrentHashMap<>();
+    private final Duration waitTimeout;
+    private final Timer waitTimer;
+    private final Counter contendedCounter;
+    private final Counter timeoutCounter;
+
+
+    public BookingLockManager(MeterRegistry meterRegistry,
+                              @Value("${booking.lock.wait-timeout:5s}") Duration waitTimeout) {
+        this.waitTimeout = waitTimeout;
+        this.waitTimer = Timer.builder("booking.lock.wait")
+                .description("Time spent waiting for the booking lock of a unit")
+                .register(meterRegistry);
+        this.contendedCounter = Counter.builder("booking.lock.contended")
+                .description("Booking lock requests that had to wait for another booking of the same unit")
+                .register(meterRegistry);
+        this.timeoutCounter = Counter.builder("booking.lock.timeouts")
+                .description("Booking lock requests that gave up after the wait timeout")
+                .register(meterRegistry);
+        meterRegistry.gauge("booking.lock.active", locks, Map::size);
+    }
+
+
+    /*
+     * Run the action while holding the unit's lock.
+     * Outside a transaction -> lock, run (the action opens and commits its own transaction), unlock.
+     * Inside one (e.g. a caller's @Transactional) -> the lock is held until that transaction ends,
+     * so the booking is never visible unlocked before its commit.
+     */
+    public <T> T withLock(UUID unitId, Supplier<T> action) {
+        UnitLock unitLock = acquire(unitId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    unitLock.lock.unlock();
+                    release(unitId);
+                }
+            });
+            return action.get();
+        }
+
+        try {
+            return action.get();
+        } finally {
+            unitLock.lock.unlock();
+            release(unitId);
+        }
+    }
+
+
+    // ==================== PRIVATE HELPER METHODS ====================
+    // Wait up to booking.lock.wait-timeout, then give up with a 409
+    private UnitLock acquire(UUID unitId) {
+        UnitLock unitLock = retain(unitId);
+        long startedAt = System.nanoTime();
+        try {
+            if (!unitLock.lock.tryLock()) {
+                contendedCounter.increment();
+                if (!unitLock.lock.tryLock(waitTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    timeoutCounter.increment();
+                    release(unitId);
+                    throw CustomResponseException.Conflict(
+                            "Another booking for this unit is in progress, please try again");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            release(unitId);
+            throw CustomResponseException.Conflict("Booking was interrupted, please try again");
+        } finally {
+            waitTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+
+        return unitLock;
+    }
+
+    private UnitLock retain(UUID unitId) {
+        return locks.compute(unitId, (id, existing) -> {
+            UnitLock unitLock = existing != null ? existing : new UnitLock();
+            unitLock.holders++;
+            return unitLock;
+        });
+    }
+
+    // Drop the lock from the map once nobody holds or waits for it
+    private void release(UUID unitId) {
+        locks.computeIfPresent(unitId, (id, unitLock) -> --unitLock.holders == 0 ? null : unitLock);
+    }
+
+    private static final class UnitLock {
+        private final ReentrantLock lock = new ReentrantLock();
+        private int holders;
+    }
+
+
+}
@@ -0,0 +1,63 @@
+package com.mostafa.hotel.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+
+/*
+ * Short-lived cache of search totals 🔢
+ * Keyed by the normalized filter values of a search (a record, so equals/hashCode come for free),
+ * so paging through the same result set runs its COUNT(*) once per TTL instead of once per page.
+ * Writes to the counted rows call invalidateAllAfterCommit(); anything else (bookings, other instances)
+ * may lag by up to the TTL, so totals are for display only -> paging decisions come from the page itself.
+ */
+@Component
+public class CountCache {
+    private final Cache<Object, Long> counts;
+
+
+    public CountCache(MeterRegistry meterRegistry,
+                      @Value("${search.count-cache.ttl:PT30S}") Duration ttl,
+                      @Value("${search.count-cache.max-size:10000}") long maxSize) {
+        this.counts = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, counts, "search.count");
+    }
+
+
+    // Cached total for this filter key, or run the count (concurrent misses on the same key count once)
+    public long get(Object filterKey, Supplier<Long> counter) {
+        return counts.get(filterKey, key -> counter.get());
+    }
+
+    public void invalidateAll() {
+        counts.invalidateAll();
+    }
+
+    // Drop every total now and again after commit (a concurrent search may re-count the old rows)
+    public void invalidateAllAfterCommit() {
+        counts.invalidateAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counts.invalidateAll();
+                }
+            });
+        }
+    }
+
+
+}
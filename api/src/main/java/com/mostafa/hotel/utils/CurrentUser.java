@@ -1,19 +1,33 @@
 package com.mostafa.hotel.utils;
 
+import com.mostafa.hotel.config.AuthPrincipal;
 import com.mostafa.hotel.model.User;
+import com.mostafa.hotel.repository.UserRepo;
+import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
 
 @Component
+@RequiredArgsConstructor
 public class CurrentUser {
+    private final UserRepo userRepo;
+
+
+    /*
+     * Stateless mode -> a lazy reference built from the token's user id: getId() and using it as a
+     * booking's / payment's user cost no query, other getters load the row on first use.
+     */
     public User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
         if (authentication != null && authentication.isAuthenticated() &&
                 !authentication.getPrincipal().equals("anonymousUser")) {
 
+            if (authentication.getPrincipal() instanceof AuthPrincipal principal) {
+                return userRepo.getReferenceById(principal.id());
+            }
             return (User) authentication.getPrincipal();
         }
 
@@ -21,4 +35,4 @@ public class CurrentUser {
     }
 
 
-}
\ No newline at end of file
+}
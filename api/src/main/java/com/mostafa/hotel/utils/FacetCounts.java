@@ -0,0 +1,35 @@
+package com.mostafa.hotel.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+
+/*
+ * Facet counts of one search 🧮 -> dimension -> value -> matching results
+ * Counts cover the whole filtered result set (not just the page). Every requested dimension is
+ * listed, in request order; values with no match are left out, the rest are sorted by value.
+ */
+public final class FacetCounts {
+    private final Map<String, Map<String, Long>> dimensions = new LinkedHashMap<>();
+
+
+    public FacetCounts(String... dimensions) {
+        for (String dimension : dimensions) {
+            this.dimensions.put(dimension, new TreeMap<>());
+        }
+    }
+
+    public FacetCounts add(String dimension, Object value, long count) {
+        if (value != null && count > 0) {
+            dimensions.get(dimension).merge(value.toString(), count, Long::sum);
+        }
+        return this;
+    }
+
+    public Map<String, Map<String, Long>> toMap() {
+        return dimensions;
+    }
+
+
+}
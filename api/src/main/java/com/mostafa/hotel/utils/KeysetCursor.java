@@ -0,0 +1,56 @@
+package com.mostafa.hotel.utils;
+
+import com.mostafa.hotel.global.CustomResponseException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+
+/*
+ * Opaque keyset cursor 🔖 -> base64url("sortValue|id")
+ * Points at the last row of the previous page; the next page seeks strictly past (sortValue, id),
+ * so its cost doesn't depend on how deep the client has scrolled.
+ */
+public record KeysetCursor(String sortValue, UUID id) {
+
+    public static String encode(Object sortValue, UUID id) {
+        String raw = sortValue + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Blank cursor -> first page (null)
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new KeysetCursor(raw.substring(0, separator), UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw CustomResponseException.BadRequest("Invalid cursor");
+        }
+    }
+
+    public LocalDateTime sortValueAsDateTime() {
+        try {
+            return LocalDateTime.parse(sortValue);
+        } catch (RuntimeException e) {
+            throw CustomResponseException.BadRequest("Invalid cursor");
+        }
+    }
+
+    public BigDecimal sortValueAsDecimal() {
+        try {
+            return new BigDecimal(sortValue);
+        } catch (NumberFormatException e) {
+            throw CustomResponseException.BadRequest("Invalid cursor");
+        }
+    }
+
+
+}
@@ -0,0 +1,92 @@
+package com.mostafa.hotel.utils;
+
+
+/*
+ * Fixed-size bitset of nights 🌙 -> bit i means "night (origin + i days) is taken"
+ * 730 nights fit in 12 longs, so one unit costs 96 bytes of bits + 16 bytes of array header
+ * + 16 bytes of object header ≈ 128 bytes on a 64-bit JVM with compressed oops.
+ */
+public class NightBitmap {
+    private final long[] words;
+    private final int nights;
+
+
+    public NightBitmap(int nights) {
+        this.nights = nights;
+        this.words = new long[wordsFor(nights)];
+    }
+
+    public static int wordsFor(int nights) {
+        return (nights + 63) >>> 6;
+    }
+
+    public int nights() {
+        return nights;
+    }
+
+    // Mark nights [from, to) as taken
+    public synchronized void set(int from, int to) {
+        apply(from, to, true);
+    }
+
+    // Mark nights [from, to) as free
+    public synchronized void clear(int from, int to) {
+        apply(from, to, false);
+    }
+
+    public synchronized boolean isSet(int night) {
+        return night >= 0 && night < nights && (words[night >>> 6] & (1L << night)) != 0;
+    }
+
+    // Is any night in [from, to) taken? -> one AND per 64 nights
+    public synchronized boolean anySet(int from, int to) {
+        from = Math.max(from, 0);
+        to = Math.min(to, nights);
+        if (from >= to) {
+            return false;
+        }
+
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+
+        if (first == last) {
+            return (words[first] & firstMask & lastMask) != 0;
+        }
+        if ((words[first] & firstMask) != 0) {
+            return true;
+        }
+        for (int i = first + 1; i < last; i++) {
+            if (words[i] != 0) {
+                return true;
+            }
+        }
+        return (words[last] & lastMask) != 0;
+    }
+
+
+    // ==================== PRIVATE HELPER METHODS ====================
+    private void apply(int from, int to, boolean value) {
+        from = Math.max(from, 0);
+        to = Math.min(to, nights);
+        if (from >= to) {
+            return;
+        }
+
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        for (int i = first; i <= last; i++) {
+            long mask = -1L;
+            if (i == first) {
+                mask &= -1L << from;
+            }
+            if (i == last) {
+                mask &= -1L >>> -to;
+            }
+            words[i] = value ? words[i] | mask : words[i] & ~mask;
+        }
+    }
+
+
+}
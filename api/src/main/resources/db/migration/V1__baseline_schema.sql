@@ -0,0 +1,195 @@
+-- Baseline: the schema Hibernate's ddl-auto=update used to create.
+-- Databases that already have these tables are baselined at version 1 (spring.flyway.baseline-on-migrate)
+-- and skip this script; empty databases run it. FK names match the ones Hibernate generated,
+-- so both paths end up with the same schema.
+
+CREATE TABLE users (
+    id                 uuid         NOT NULL,
+    username           varchar(255) NOT NULL UNIQUE,
+    email              varchar(255) NOT NULL UNIQUE,
+    password           varchar(255) NOT NULL,
+    first_name         varchar(255),
+    last_name          varchar(255),
+    phone_number       varchar(255),
+    profile_image_url  varchar(255),
+    role               varchar(255) NOT NULL CHECK (role IN ('USER', 'ADMIN', 'MANAGER')),
+    created_by         varchar(255),
+    created_date       timestamp(6),
+    last_modified_by   varchar(255),
+    last_modified_date timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE hotels (
+    id                 uuid         NOT NULL,
+    email              varchar(255) NOT NULL UNIQUE,
+    name               varchar(255) NOT NULL,
+    description        TEXT,
+    address            varchar(255) NOT NULL,
+    city               varchar(255) NOT NULL,
+    country            varchar(255) NOT NULL,
+    postal_code        varchar(255),
+    phone_number       varchar(255),
+    image_url          varchar(255),
+    rating             numeric(38, 2),
+    is_active          boolean,
+    created_by         varchar(255),
+    created_date       timestamp(6),
+    last_modified_by   varchar(255),
+    last_modified_date timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE apartments (
+    id                        uuid           NOT NULL,
+    apartment_number          varchar(255)   NOT NULL,
+    name                      varchar(255)   NOT NULL,
+    description               TEXT,
+    image_url                 varchar(255),
+    price_per_night           numeric(38, 2) NOT NULL,
+    total_capacity            integer        NOT NULL,
+    number_of_bedrooms        integer        NOT NULL,
+    number_of_bathrooms       integer        NOT NULL,
+    floor_number              integer,
+    area_sqm                  numeric(38, 2),
+    is_available              boolean,
+    rooms_bookable_separately boolean,
+    has_kitchen               boolean,
+    has_living_room           boolean,
+    has_dining_area           boolean,
+    has_balcony               boolean,
+    has_wifi                  boolean,
+    has_air_conditioning      boolean,
+    has_parking               boolean,
+    has_laundry               boolean,
+    apartment_type            varchar(255)   NOT NULL CHECK (apartment_type IN ('STUDIO', 'ONE_BEDROOM', 'TWO_BEDROOM', 'THREE_BEDROOM', 'PENTHOUSE', 'FAMILY_APARTMENT', 'LUXURY_SUITE', 'PRESIDENTIAL_SUITE')),
+    hotel_id                  uuid           NOT NULL,
+    created_by                varchar(255),
+    created_date              timestamp(6),
+    last_modified_by          varchar(255),
+    last_modified_date        timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE rooms (
+    id                    uuid           NOT NULL,
+    room_number           varchar(255)   NOT NULL,
+    description           TEXT,
+    image_url             varchar(255),
+    price_per_night       numeric(10, 2) NOT NULL,
+    capacity              integer        NOT NULL,
+    is_available          boolean,
+    bookable_individually boolean,
+    has_wifi              boolean,
+    has_air_conditioning  boolean,
+    has_tv                boolean,
+    has_mini_bar          boolean,
+    has_balcony           boolean,
+    has_private_bathroom  boolean,
+    room_type             varchar(255)   NOT NULL CHECK (room_type IN ('BEDROOM', 'MASTER_BEDROOM', 'SINGLE_BEDROOM', 'DOUBLE_BEDROOM', 'STANDARD', 'DELUXE', 'SUITE', 'PRESIDENTIAL_SUITE', 'FAMILY_ROOM')),
+    hotel_id              uuid,
+    apartment_id          uuid,
+    created_by            varchar(255),
+    created_date          timestamp(6),
+    last_modified_by      varchar(255),
+    last_modified_date    timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE bookings (
+    id                 uuid         NOT NULL,
+    check_in_date      date         NOT NULL,
+    check_out_date     date         NOT NULL,
+    number_of_guests   integer      NOT NULL,
+    booking_type       varchar(255) NOT NULL CHECK (booking_type IN ('APARTMENT', 'ROOM')),
+    status             varchar(255) NOT NULL CHECK (status IN ('PENDING', 'CANCELLED', 'COMPLETED', 'PARTIAL_PAYMENT', 'CONFIRMED')),
+    user_id            uuid         NOT NULL,
+    hotel_id           uuid         NOT NULL,
+    apartment_id       uuid,
+    room_id            uuid,
+    created_by         varchar(255),
+    created_date       timestamp(6),
+    last_modified_by   varchar(255),
+    last_modified_date timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE payments (
+    id                 uuid           NOT NULL,
+    amount             numeric(38, 2) NOT NULL,
+    status             varchar(255) CHECK (status IN ('PENDING', 'REFUNDED', 'PAID')),
+    notes              varchar(255),
+    booking_id         uuid           NOT NULL UNIQUE,
+    user_id            uuid           NOT NULL,
+    created_by         varchar(255),
+    created_date       timestamp(6),
+    last_modified_by   varchar(255),
+    last_modified_date timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE reviews (
+    id                 uuid         NOT NULL,
+    rating             integer      NOT NULL,
+    comment            TEXT,
+    review_type        varchar(255) NOT NULL CHECK (review_type IN ('HOTEL', 'APARTMENT', 'ROOM')),
+    user_id            uuid         NOT NULL,
+    hotel_id           uuid         NOT NULL,
+    apartment_id       uuid,
+    room_id            uuid,
+    booking_id         uuid UNIQUE,
+    created_by         varchar(255),
+    created_date       timestamp(6),
+    last_modified_by   varchar(255),
+    last_modified_date timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE room_availability (
+    id                 uuid    NOT NULL,
+    room_id            uuid    NOT NULL,
+    date               date    NOT NULL,
+    is_available       boolean NOT NULL,
+    created_by         varchar(255),
+    created_date       timestamp(6),
+    last_modified_by   varchar(255),
+    last_modified_date timestamp(6),
+    PRIMARY KEY (id),
+    UNIQUE (room_id, date)
+);
+
+CREATE TABLE apartment_availability (
+    id                 uuid    NOT NULL,
+    apartment_id       uuid    NOT NULL,
+    date               date    NOT NULL,
+    is_available       boolean NOT NULL,
+    created_by         varchar(255),
+    created_date       timestamp(6),
+    last_modified_by   varchar(255),
+    last_modified_date timestamp(6),
+    PRIMARY KEY (id),
+    UNIQUE (apartment_id, date)
+);
+
+
+ALTER TABLE apartments ADD CONSTRAINT FK2dmj6rnv4mhdboifaljt8e319 FOREIGN KEY (hotel_id) REFERENCES hotels;
+
+ALTER TABLE rooms ADD CONSTRAINT FKp5lufxy0ghq53ugm93hdc941k FOREIGN KEY (hotel_id) REFERENCES hotels;
+ALTER TABLE rooms ADD CONSTRAINT FKp503iteuvt4lfm1mdtcsi7260 FOREIGN KEY (apartment_id) REFERENCES apartments;
+
+ALTER TABLE bookings ADD CONSTRAINT FKeyog2oic85xg7hsu2je2lx3s6 FOREIGN KEY (user_id) REFERENCES users;
+ALTER TABLE bookings ADD CONSTRAINT FK7y09f5lun38jnooaw2hch0ke9 FOREIGN KEY (hotel_id) REFERENCES hotels;
+ALTER TABLE bookings ADD CONSTRAINT FK5a9b3jqsxk2ke9o7xl9w918u3 FOREIGN KEY (apartment_id) REFERENCES apartments;
+ALTER TABLE bookings ADD CONSTRAINT FKrgoycol97o21kpjodw1qox4nc FOREIGN KEY (room_id) REFERENCES rooms;
+
+ALTER TABLE payments ADD CONSTRAINT FKc52o2b1jkxttngufqp3t7jr3h FOREIGN KEY (booking_id) REFERENCES bookings;
+ALTER TABLE payments ADD CONSTRAINT FKj94hgy9v5fw1munb90tar2eje FOREIGN KEY (user_id) REFERENCES users;
+
+ALTER TABLE reviews ADD CONSTRAINT FKcgy7qjc1r99dp117y9en6lxye FOREIGN KEY (user_id) REFERENCES users;
+ALTER TABLE reviews ADD CONSTRAINT FKb9igk5exfb4knqklcvka6cdhx FOREIGN KEY (hotel_id) REFERENCES hotels;
+ALTER TABLE reviews ADD CONSTRAINT FK6so1fiaois27m78ksipx0ddx7 FOREIGN KEY (apartment_id) REFERENCES apartments;
+ALTER TABLE reviews ADD CONSTRAINT FKoppowk1pob9qiujo31erx63x1 FOREIGN KEY (room_id) REFERENCES rooms;
+ALTER TABLE reviews ADD CONSTRAINT FK28an517hrxtt2bsg93uefugrm FOREIGN KEY (booking_id) REFERENCES bookings;
+
+ALTER TABLE room_availability ADD CONSTRAINT FK6amy5j70qonexbd2imncdqt5w FOREIGN KEY (room_id) REFERENCES rooms;
+ALTER TABLE apartment_availability ADD CONSTRAINT FKd4rsow0amf48cfy315mnjkxa3 FOREIGN KEY (apartment_id) REFERENCES apartments;
@@ -0,0 +1,21 @@
+-- Price snapshot on bookings (see Booking.pricePerNight / totalAmount).
+-- IF NOT EXISTS -> databases baselined from ddl-auto=update may already have the columns.
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS price_per_night numeric(10, 2);
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS total_amount numeric(12, 2);
+
+-- Backfill bookings created before the snapshot existed from the unit's current price.
+UPDATE bookings b
+SET price_per_night = r.price_per_night,
+    total_amount    = r.price_per_night * (b.check_out_date - b.check_in_date)
+FROM rooms r
+WHERE b.room_id = r.id
+  AND b.booking_type = 'ROOM'
+  AND b.price_per_night IS NULL;
+
+UPDATE bookings b
+SET price_per_night = a.price_per_night,
+    total_amount    = a.price_per_night * (b.check_out_date - b.check_in_date)
+FROM apartments a
+WHERE b.apartment_id = a.id
+  AND b.booking_type = 'APARTMENT'
+  AND b.price_per_night IS NULL;
@@ -0,0 +1,20 @@
+-- Trigram indexes for text search (pg_trgm is a trusted extension, the database owner can create it).
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- q= on /api/hotels/search: word_similarity over name, city and country, best match first.
+-- The expression must stay identical to the one in HotelRepo.searchByText or the index is not used.
+CREATE INDEX IF NOT EXISTS idx_hotels_search_trgm
+    ON hotels USING gin ((lower(name || ' ' || city || ' ' || country)) gin_trgm_ops);
+
+-- The hotel attribute filters render LOWER(x) LIKE '%term%'; a trigram index on lower(x) serves those
+-- without a table scan. Room numbers and apartment names / numbers get none: they repeat in every hotel,
+-- so a "contains" on them matches a large share of the table and the planner scans it anyway.
+CREATE INDEX IF NOT EXISTS idx_hotels_name_trgm
+    ON hotels USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_hotels_city_trgm
+    ON hotels USING gin (lower(city) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_hotels_country_trgm
+    ON hotels USING gin (lower(country) gin_trgm_ops);
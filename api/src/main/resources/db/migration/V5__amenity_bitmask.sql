@@ -0,0 +1,43 @@
+-- Amenity flags -> one int bitmask per unit (bit i = i-th constant of RoomAmenity / ApartmentAmenity).
+-- NULL flags become 0 bits. Searches filter with bitand(amenities, <checked>) = <required>; no index serves
+-- that (not sargable, and a handful of distinct masks is never selective), so the column gets none.
+
+ALTER TABLE rooms ADD COLUMN amenities integer NOT NULL DEFAULT 0;
+
+UPDATE rooms SET amenities =
+      (CASE WHEN has_wifi THEN 1 ELSE 0 END)
+    | (CASE WHEN has_air_conditioning THEN 2 ELSE 0 END)
+    | (CASE WHEN has_tv THEN 4 ELSE 0 END)
+    | (CASE WHEN has_mini_bar THEN 8 ELSE 0 END)
+    | (CASE WHEN has_balcony THEN 16 ELSE 0 END)
+    | (CASE WHEN has_private_bathroom THEN 32 ELSE 0 END);
+
+ALTER TABLE rooms
+    DROP COLUMN has_wifi,
+    DROP COLUMN has_air_conditioning,
+    DROP COLUMN has_tv,
+    DROP COLUMN has_mini_bar,
+    DROP COLUMN has_balcony,
+    DROP COLUMN has_private_bathroom;
+
+ALTER TABLE apartments ADD COLUMN amenities integer NOT NULL DEFAULT 0;
+
+UPDATE apartments SET amenities =
+      (CASE WHEN has_kitchen THEN 1 ELSE 0 END)
+    | (CASE WHEN has_living_room THEN 2 ELSE 0 END)
+    | (CASE WHEN has_dining_area THEN 4 ELSE 0 END)
+    | (CASE WHEN has_balcony THEN 8 ELSE 0 END)
+    | (CASE WHEN has_wifi THEN 16 ELSE 0 END)
+    | (CASE WHEN has_air_conditioning THEN 32 ELSE 0 END)
+    | (CASE WHEN has_parking THEN 64 ELSE 0 END)
+    | (CASE WHEN has_laundry THEN 128 ELSE 0 END);
+
+ALTER TABLE apartments
+    DROP COLUMN has_kitchen,
+    DROP COLUMN has_living_room,
+    DROP COLUMN has_dining_area,
+    DROP COLUMN has_balcony,
+    DROP COLUMN has_wifi,
+    DROP COLUMN has_air_conditioning,
+    DROP COLUMN has_parking,
+    DROP COLUMN has_laundry;
@@ -0,0 +1,3 @@
+-- Revocation version of a user's tokens: login tokens carry it in the "ver" claim and stateless auth
+-- (security.auth.stateless=true) rejects tokens whose version is older than this one.
+ALTER TABLE users ADD COLUMN token_version integer NOT NULL DEFAULT 0;
@@ -0,0 +1,111 @@
+package com.mostafa.hotel;
+
+import com.mostafa.hotel.enums.RoomType;
+import com.mostafa.hotel.enums.UserRole;
+import com.mostafa.hotel.model.Apartment;
+import com.mostafa.hotel.model.Hotel;
+import com.mostafa.hotel.model.Room;
+import com.mostafa.hotel.model.User;
+import com.mostafa.hotel.repository.HotelRepo;
+import com.mostafa.hotel.repository.RoomRepo;
+import com.mostafa.hotel.repository.UserRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/*
+ * Shared fixtures for the service / security tests -> @Import(TestData.class).
+ * Every hotel and user gets a random suffix so tests never collide on unique emails or usernames,
+ * whether they roll back or commit.
+ */
+@TestComponent
+public class TestData {
+
+	@Autowired
+	private HotelRepo hotelRepo;
+
+	@Autowired
+	private RoomRepo roomRepo;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	public Hotel hotel() {
+		return hotel("Test Hotel", "Cairo", true);
+	}
+
+	public Hotel hotel(String name, String city, boolean isActive) {
+		return hotelRepo.save(Hotel.builder()
+				.email("hotel-" + UUID.randomUUID() + "@test.com")
+				.name(name)
+				.address("Street 1")
+				.city(city)
+				.country("Egypt")
+				.isActive(isActive)
+				.build());
+	}
+
+	public Room room(Hotel hotel, String roomNumber) {
+		return room(hotel, roomNumber, BigDecimal.valueOf(100));
+	}
+
+	public Room room(Hotel hotel, String roomNumber, BigDecimal pricePerNight) {
+		return roomRepo.save(newRoom(hotel, roomNumber).pricePerNight(pricePerNight).build());
+	}
+
+	// apartment may be null (standalone room)
+	public Room room(Hotel hotel, Apartment apartment, String roomNumber, boolean hasWifi) {
+		return roomRepo.save(newRoom(hotel, roomNumber).apartment(apartment).hasWifi(hasWifi).build());
+	}
+
+	public User user(UserRole role) {
+		return userRepo.save(newUser(role));
+	}
+
+	public List<User> users(int count) {
+		return userRepo.saveAll(IntStream.range(0, count).mapToObj(i -> newUser(UserRole.USER)).toList());
+	}
+
+	// A new USER, set as the authenticated principal of the current thread
+	public User signedInUser() {
+		return signIn(user(UserRole.USER));
+	}
+
+	public static User signIn(User user) {
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+		return user;
+	}
+
+	public static void signOut() {
+		SecurityContextHolder.clearContext();
+	}
+
+	private static Room.RoomBuilder newRoom(Hotel hotel, String roomNumber) {
+		return Room.builder()
+				.roomNumber(roomNumber)
+				.pricePerNight(BigDecimal.valueOf(100))
+				.capacity(2)
+				.isAvailable(true)
+				.bookableIndividually(true)
+				.roomType(RoomType.STANDARD)
+				.hotel(hotel);
+	}
+
+	private static User newUser(UserRole role) {
+		String suffix = UUID.randomUUID().toString();
+		return User.builder()
+				.username("user-" + suffix)
+				.email("user-" + suffix + "@test.com")
+				.password("secret")
+				.role(role)
+				.build();
+	}
+
+}
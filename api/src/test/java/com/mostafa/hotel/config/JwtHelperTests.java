@@ -0,0 +1,73 @@
+package com.mostafa.hotel.config;
+
+import com.mostafa.hotel.enums.UserRole;
+import com.mostafa.hotel.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtHelperTests {
+
+	private static final String SECRET = "c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0MTIzNA==";
+	private static final String OTHER_SECRET = "b3RoZXJvdGhlcm90aGVyb3RoZXJvdGhlcm90aGVyb3RoZXIxMjM0NTY=";
+
+	private final User user = User.builder()
+			.username("jwt-user")
+			.email("jwt-user@test.com")
+			.password("secret")
+			.role(UserRole.USER)
+			.build();
+
+	@Test
+	void generatedTokensRoundTripThroughParseClaims() {
+		JwtHelper jwtHelper = helper(SECRET);
+		String token = jwtHelper.generateToken(Map.of("role", "USER"), user);
+
+		Claims claims = jwtHelper.parseClaims(token);
+
+		assertEquals(user.getUsername(), claims.getSubject());
+		assertEquals("USER", claims.get("role", String.class));
+		assertEquals(JwtHelper.TOKEN_LIFETIME.toSeconds(),
+				(claims.getExpiration().getTime() - claims.getIssuedAt().getTime()) / 1000);
+		assertTrue(jwtHelper.isTokenValid(token, user));
+		assertTrue(jwtHelper.isTokenValid(claims, user));
+	}
+
+	@Test
+	void rawSecretsAreHashedIntoAKey() {
+		JwtHelper jwtHelper = helper("not base64 at all");
+
+		assertEquals(user.getUsername(), jwtHelper.parseClaims(jwtHelper.generateToken(user)).getSubject());
+	}
+
+	@Test
+	void tamperedTokensAreRejected() {
+		JwtHelper jwtHelper = helper(SECRET);
+		String[] parts = jwtHelper.generateToken(user).split("\\.");
+		String otherPayload = helper(SECRET).generateToken(Map.of("role", "ADMIN"), user).split("\\.")[1];
+
+		assertThrows(JwtException.class, () -> jwtHelper.parseClaims(parts[0] + "." + otherPayload + "." + parts[2]));
+	}
+
+	@Test
+	void tokensSignedWithAnotherKeyAreRejected() {
+		String foreign = helper(OTHER_SECRET).generateToken(user);
+
+		assertThrows(JwtException.class, () -> helper(SECRET).parseClaims(foreign));
+	}
+
+	private static JwtHelper helper(String secret) {
+		JwtHelper jwtHelper = new JwtHelper();
+		ReflectionTestUtils.setField(jwtHelper, "JWT_SECRET", secret);
+		jwtHelper.init();
+		return jwtHelper;
+	}
+
+}
@@ -0,0 +1,90 @@
+package com.mostafa.hotel.config;
+
+import com.mostafa.hotel.TestData;
+import com.mostafa.hotel.enums.UserRole;
+import com.mostafa.hotel.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/*
+ * Requests go through the real security filter chains; the "controller" is a lambda that records what
+ * authentication it was handed.
+ */
+@SpringBootTest
+@Transactional
+@Import(TestData.class)
+class SecurityChainTests {
+
+	@Autowired
+	private FilterChainProxy springSecurityFilterChain;
+
+	@Autowired
+	private FilterRegistrationBean<JwtAuthFilter> jwtAuthFilterRegistration;
+
+	@Autowired
+	private VerifiedTokenCache verifiedTokenCache;
+
+	@Autowired
+	private JwtHelper jwtHelper;
+
+	@Autowired
+	private TestData testData;
+
+	private String token;
+
+	@BeforeEach
+	void setUp() {
+		User admin = testData.user(UserRole.ADMIN);
+		token = jwtHelper.generateToken(admin);
+	}
+
+	@Test
+	void catalogReadsNeverLookAtTheToken() throws Exception {
+		long verified = verifiedTokenCache.size();
+
+		for (String path : new String[]{"/api/rooms", "/api/hotels/search", "/api/rooms/" + UUID.randomUUID() + "/calendar"}) {
+			assertNull(send("GET", path));
+		}
+		assertEquals(verified, verifiedTokenCache.size());
+	}
+
+	@Test
+	void everythingElseIsStillAuthenticated() throws Exception {
+		assertEquals("ROLE_ADMIN", send("POST", "/api/rooms").getAuthorities().iterator().next().getAuthority());
+		assertEquals("ROLE_ADMIN",
+				send("GET", "/api/hotels/" + UUID.randomUUID() + "/occupancy").getAuthorities().iterator().next().getAuthority());
+	}
+
+	@Test
+	void jwtFilterOnlyRunsInsideTheSecurityChain() {
+		assertFalse(jwtAuthFilterRegistration.isEnabled());
+	}
+
+	private Authentication send(String method, String path) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+		request.addHeader("Authorization", "Bearer " + token);
+		AtomicReference<Authentication> seen = new AtomicReference<>();
+
+		springSecurityFilterChain.doFilter(request, new MockHttpServletResponse(),
+				(req, res) -> seen.set(SecurityContextHolder.getContext().getAuthentication()));
+		return seen.get();
+	}
+
+}
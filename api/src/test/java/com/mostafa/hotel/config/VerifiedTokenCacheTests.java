@@ -0,0 +1,116 @@
+package com.mostafa.hotel.config;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VerifiedTokenCacheTests {
+
+	private final AtomicLong nanos = new AtomicLong();
+	private final Ticker ticker = nanos::get;
+	private final AtomicInteger verifications = new AtomicInteger();
+
+	private MeterRegistry meterRegistry;
+	private VerifiedTokenCache cache;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		cache = new VerifiedTokenCache(meterRegistry, 2, ticker);
+	}
+
+	@Test
+	void repeatTokensSkipVerificationAndCountAsHits() {
+		Function<String, Claims> verifier = verifierExpiringIn(Duration.ofMinutes(5));
+
+		Claims first = cache.verify("token-a", verifier);
+		Claims second = cache.verify("token-a", verifier);
+
+		assertSame(first, second);
+		assertEquals(1, verifications.get());
+		assertEquals(1, gets("hit"));
+		assertEquals(1, gets("miss"));
+	}
+
+	@Test
+	void entriesExpireWithTheirToken() {
+		// exp is stored in whole seconds -> steps stay clear of the sub-second truncation
+		Function<String, Claims> verifier = verifierExpiringIn(Duration.ofSeconds(10));
+		cache.verify("token-a", verifier);
+
+		advance(Duration.ofSeconds(5));
+		cache.verify("token-a", verifier);
+		assertEquals(1, verifications.get());
+
+		// Past exp -> verified again (which, for a real token, rejects it), never served from the cache
+		advance(Duration.ofSeconds(6));
+		cache.verify("token-a", verifier);
+		assertEquals(2, verifications.get());
+	}
+
+	@Test
+	void alreadyExpiredClaimsAreNeverCached() {
+		Function<String, Claims> verifier = verifierExpiringIn(Duration.ofSeconds(-1));
+
+		cache.verify("token-a", verifier);
+		cache.verify("token-a", verifier);
+
+		assertEquals(4, verifications.get());
+	}
+
+	@Test
+	void rejectedTokensAreNotCached() {
+		Function<String, Claims> rejecting = token -> {
+			verifications.incrementAndGet();
+			throw new IllegalArgumentException("bad signature");
+		};
+
+		assertThrows(IllegalArgumentException.class, () -> cache.verify("token-a", rejecting));
+		assertThrows(IllegalArgumentException.class, () -> cache.verify("token-a", rejecting));
+		assertEquals(2, verifications.get());
+	}
+
+	@Test
+	void sizeStaysBoundedUnderTokenChurn() {
+		Function<String, Claims> verifier = verifierExpiringIn(Duration.ofMinutes(5));
+		for (int i = 0; i < 1000; i++) {
+			cache.verify("token-" + i, verifier);
+		}
+
+		assertEquals(2, cache.size());
+	}
+
+	private Function<String, Claims> verifierExpiringIn(Duration ttl) {
+		return token -> {
+			verifications.incrementAndGet();
+			return Jwts.claims()
+					.subject("user@test.com")
+					.expiration(new Date(System.currentTimeMillis() + ttl.toMillis()))
+					.build();
+		};
+	}
+
+	private void advance(Duration duration) {
+		nanos.addAndGet(duration.toNanos());
+	}
+
+	private double gets(String result) {
+		return meterRegistry.get("cache.gets").tag("cache", "security.token").tag("result", result)
+				.functionCounter().count();
+	}
+
+}
@@ -0,0 +1,294 @@
+package com.mostafa.hotel.repository;
+
+import com.mostafa.hotel.specification.ApartmentSpecs;
+import com.mostafa.hotel.specification.HotelSpecs;
+import com.mostafa.hotel.specification.RoomSpecs;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Every index from V3__hot_path_indexes.sql and V4__trigram_search.sql must be picked for the query it was
+ * added for.
+ * Each test runs the real repository call, takes the SQL Hibernate sent (Statements below) and EXPLAINs it
+ * with the same values bound, so the plan is the one production gets: the literal 'CANCELLED' that the
+ * partial booking indexes need, the parameter types, the pagination clauses.
+ * The data is shaped like a real catalog (10k hotels in 800 cities, 100k rooms numbered 101..204 in every
+ * hotel, 150k bookings with their payments) and sequential scans stay on, so an index only shows up when
+ * the planner prefers it over scanning. Seeding takes a while, so it is committed once for the class and
+ * deleted afterwards; every id is md5('<prefix><n>') so rows reference each other without joins.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.mostafa.hotel.repository.IndexUsageTests$Statements")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class IndexUsageTests {
+
+	private static final String WORD = "initcap(translate(substr(md5(%s), 1, 7), '0123456789', 'ghijklmnop'))";
+	private static final LocalDate CHECK_IN = LocalDate.of(2030, 1, 5);
+	private static final LocalDate CHECK_OUT = LocalDate.of(2030, 1, 10);
+	private static final Pageable NEWEST_FIRST = PageRequest.of(0, 11, Sort.by(Sort.Order.desc("createdDate"), Sort.Order.desc("id")));
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private BookingRepo bookingRepo;
+
+	@Autowired
+	private RoomRepo roomRepo;
+
+	@Autowired
+	private ApartmentRepo apartmentRepo;
+
+	@Autowired
+	private HotelRepo hotelRepo;
+
+	@Autowired
+	private PaymentRepo paymentRepo;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	private UUID hotelId;
+	private UUID userId;
+	private UUID apartmentId;
+	private UUID roomId;
+	private LocalDateTime seek;
+
+	@BeforeAll
+	void seed() {
+		deleteSeededRows();
+		jdbcTemplate.execute("INSERT INTO hotels (id, email, name, address, city, country, created_date) " +
+				"SELECT md5('idx-h' || g)::uuid, 'idx-hotel-' || g || '@test.com', " +
+				word("'name' || g % 5000") + " || ' ' || (ARRAY['Hotel', 'Resort', 'Inn', 'Suites'])[g % 4 + 1], " +
+				"g || ' Main Street', " + word("'city' || g % 800") + ", " + word("'country' || g % 80") + ", " +
+				"now() - g * interval '1 minute' FROM generate_series(1, 10000) g");
+		jdbcTemplate.execute("INSERT INTO users (id, username, email, password, role, created_date) " +
+				"SELECT md5('idx-u' || g)::uuid, 'idx-user-' || g, 'idx-user-' || g || '@test.com', 'x', 'USER', " +
+				"now() - g * interval '1 minute' FROM generate_series(1, 20000) g");
+		jdbcTemplate.execute("INSERT INTO apartments (id, apartment_number, name, price_per_night, total_capacity, " +
+				"number_of_bedrooms, number_of_bathrooms, apartment_type, hotel_id, created_date) " +
+				"SELECT md5('idx-a' || g)::uuid, 'A' || (g % 12 + 1), " +
+				"(ARRAY['Garden', 'Sea View', 'City View', 'Family', 'Penthouse'])[g % 5 + 1] || ' Suite', " +
+				"200 + g % 800, 4, 2, 1, 'TWO_BEDROOM', md5('idx-h' || g)::uuid, now() FROM generate_series(1, 10000) g");
+		jdbcTemplate.execute("INSERT INTO rooms (id, room_number, price_per_night, capacity, room_type, hotel_id, created_date) " +
+				"SELECT md5('idx-r' || g)::uuid, (g / 40000 + 1) * 100 + g / 10000 % 4 + 1, 50 + g % 500, 2, 'STANDARD', " +
+				"md5('idx-h' || g % 10000 + 1)::uuid, now() FROM generate_series(0, 79999) g");
+		jdbcTemplate.execute("INSERT INTO rooms (id, room_number, price_per_night, capacity, room_type, hotel_id, " +
+				"apartment_id, created_date) " +
+				"SELECT md5('idx-ar' || g)::uuid, 'A' || (g % 10000 % 12 + 1) || '-' || (g / 10000 + 1), 100, 2, 'STANDARD', " +
+				"md5('idx-h' || g % 10000 + 1)::uuid, md5('idx-a' || g % 10000 + 1)::uuid, now() " +
+				"FROM generate_series(0, 19999) g");
+		jdbcTemplate.execute("INSERT INTO bookings (id, check_in_date, check_out_date, number_of_guests, booking_type, status, " +
+				"user_id, hotel_id, room_id, created_date) " +
+				"SELECT md5('idx-b' || g)::uuid, DATE '2030-01-01' + g % 365, DATE '2030-01-03' + g % 365, 1, 'ROOM', " +
+				"CASE WHEN g % 10 = 0 THEN 'CANCELLED' ELSE 'CONFIRMED' END, md5('idx-u' || g % 20000 + 1)::uuid, " +
+				"md5('idx-h' || g % 80000 % 10000 + 1)::uuid, md5('idx-r' || g % 80000)::uuid, " +
+				"now() - g * interval '1 minute' FROM generate_series(1, 120000) g");
+		jdbcTemplate.execute("INSERT INTO bookings (id, check_in_date, check_out_date, number_of_guests, booking_type, status, " +
+				"user_id, hotel_id, apartment_id, created_date) " +
+				"SELECT md5('idx-ab' || g)::uuid, DATE '2030-01-01' + g % 365, DATE '2030-01-04' + g % 365, 2, 'APARTMENT', " +
+				"CASE WHEN g % 10 = 0 THEN 'CANCELLED' ELSE 'CONFIRMED' END, md5('idx-u' || g % 20000 + 1)::uuid, " +
+				"md5('idx-h' || g % 10000 + 1)::uuid, md5('idx-a' || g % 10000 + 1)::uuid, " +
+				"now() - g * interval '1 minute' FROM generate_series(1, 30000) g");
+		jdbcTemplate.execute("INSERT INTO payments (id, amount, status, booking_id, user_id, created_date) " +
+				"SELECT md5('idx-p' || b.id)::uuid, 100, 'PAID', b.id, b.user_id, b.created_date FROM bookings b " +
+				"WHERE b.user_id IN (SELECT id FROM users WHERE email LIKE 'idx-user-%')");
+		// VACUUM as well: flushes the GIN pending lists the inserts filled, as autovacuum does on a live catalog
+		jdbcTemplate.execute("VACUUM ANALYZE hotels, users, rooms, apartments, bookings, payments");
+
+		hotelId = seeded("idx-h1");
+		userId = seeded("idx-u1");
+		apartmentId = seeded("idx-a1");
+		roomId = seeded("idx-r1");
+		seek = LocalDateTime.now().minusDays(1);
+	}
+
+	@AfterAll
+	void deleteSeededRows() {
+		String users = "(SELECT id FROM users WHERE email LIKE 'idx-user-%')";
+		String hotels = "(SELECT id FROM hotels WHERE email LIKE 'idx-hotel-%')";
+		jdbcTemplate.update("DELETE FROM payments WHERE user_id IN " + users);
+		jdbcTemplate.update("DELETE FROM bookings WHERE user_id IN " + users);
+		// The rooms FK check on bookings.room_id scans the table (the room index is partial) -> drop the dead rows first
+		jdbcTemplate.execute("VACUUM bookings");
+		jdbcTemplate.update("DELETE FROM rooms WHERE hotel_id IN " + hotels);
+		jdbcTemplate.update("DELETE FROM apartments WHERE hotel_id IN " + hotels);
+		jdbcTemplate.update("DELETE FROM hotels WHERE id IN " + hotels);
+		jdbcTemplate.update("DELETE FROM users WHERE id IN " + users);
+	}
+
+	@Test
+	void overlapChecksUseActiveBookings() {
+		assertFirstPlanUses("idx_bookings_room_active",
+				() -> bookingRepo.existsByRoomIdAndDateRange(roomId, CHECK_IN, CHECK_OUT),
+				roomId, CHECK_IN, CHECK_OUT);
+		assertFirstPlanUses("idx_bookings_apartment_active",
+				() -> bookingRepo.existsByApartmentIdAndDateRange(apartmentId, CHECK_IN, CHECK_OUT),
+				apartmentId, CHECK_IN, CHECK_OUT);
+	}
+
+	@Test
+	void freeUnitSearchAntiJoinsUseActiveBookings() {
+		assertFirstPlanUses("idx_bookings_room_active",
+				() -> roomRepo.findAll(RoomSpecs.inHotel(hotelId).and(RoomSpecs.freeBetween(CHECK_IN, CHECK_OUT)),
+						PageRequest.of(0, 10, Sort.by("pricePerNight"))),
+				hotelId, CHECK_OUT, CHECK_IN, CHECK_IN, CHECK_OUT, 0, 10);
+		assertFirstPlanUses("idx_bookings_apartment_active",
+				() -> apartmentRepo.findAll(ApartmentSpecs.inHotel(hotelId).and(ApartmentSpecs.freeBetween(CHECK_IN, CHECK_OUT)),
+						PageRequest.of(0, 10, Sort.by("pricePerNight"))),
+				hotelId, CHECK_OUT, CHECK_IN, CHECK_IN, CHECK_OUT, 0, 10);
+	}
+
+	@Test
+	void userBookingsUseUserCreated() {
+		assertFirstPlanUses("idx_bookings_user_created",
+				() -> bookingRepo.findByUserId(userId, PageRequest.of(0, 10)),
+				userId, 10);
+		assertFirstPlanUses("idx_bookings_user_created",
+				() -> bookingRepo.findUserPageAfter(userId, seek, userId, NEWEST_FIRST),
+				userId, seek, seek, seek, userId, 12);
+	}
+
+	@Test
+	void hotelBookingsUseHotelIndex() {
+		assertFirstPlanUses("idx_bookings_hotel",
+				() -> bookingRepo.findByHotelId(hotelId, PageRequest.of(0, 10)),
+				hotelId, 10);
+	}
+
+	@Test
+	void standaloneRoomsOfHotelUseHotelApartmentPrice() {
+		assertFirstPlanUses("idx_rooms_hotel_apartment_price",
+				() -> roomRepo.findAll(RoomSpecs.standalone().and(RoomSpecs.inHotel(hotelId)),
+						PageRequest.of(0, 10, Sort.by("pricePerNight"))),
+				hotelId, 0, 10);
+	}
+
+	@Test
+	void apartmentRoomsUseApartmentIndex() {
+		assertFirstPlanUses("idx_rooms_apartment",
+				() -> roomRepo.findAll(RoomSpecs.inApartment(apartmentId), PageRequest.of(0, 10, Sort.by("roomNumber"))),
+				apartmentId, 0, 10);
+	}
+
+	@Test
+	void roomKeysetUsesPriceId() {
+		BigDecimal price = BigDecimal.valueOf(100);
+		assertFirstPlanUses("idx_rooms_price_id",
+				() -> roomRepo.findBy(RoomSpecs.cheaperFirstAfter(price, roomId), q -> q.slice(
+						PageRequest.of(0, 10, Sort.by(Sort.Order.asc("pricePerNight"), Sort.Order.asc("id"))))),
+				price, price, roomId, 0, 11);
+	}
+
+	@Test
+	void hotelApartmentsUseHotelIndex() {
+		assertFirstPlanUses("idx_apartments_hotel",
+				() -> apartmentRepo.findAllByHotelId(hotelId),
+				hotelId);
+	}
+
+	@Test
+	void userPaymentsUseUserCreated() {
+		assertFirstPlanUses("idx_payments_user_created",
+				() -> paymentRepo.findByUserId(userId, PageRequest.of(0, 10)),
+				userId, 10);
+	}
+
+	@Test
+	void newestFirstKeysetPagesUseCreatedId() {
+		assertFirstPlanUses("idx_payments_created_id",
+				() -> paymentRepo.findPageAfter(seek, userId, NEWEST_FIRST),
+				seek, seek, seek, userId, 12);
+		assertFirstPlanUses("idx_hotels_created_id",
+				() -> hotelRepo.findPageAfter(seek, hotelId, NEWEST_FIRST),
+				seek, seek, seek, hotelId, 12);
+		assertFirstPlanUses("idx_users_created_id",
+				() -> userRepo.findPageAfter(seek, userId, NEWEST_FIRST),
+				seek, seek, seek, userId, 12);
+	}
+
+	@Test
+	void hotelTextSearchUsesSearchTrigram() {
+		String q = hotelText("lower(name)");
+		assertFirstPlanUses("idx_hotels_search_trgm",
+				() -> hotelRepo.searchByText(q, PageRequest.of(0, 10)),
+				q, q, 10);
+	}
+
+	@Test
+	void hotelContainsFiltersUseTrigramIndexes() {
+		String name = hotelText("lower(substr(name, 1, 5))");
+		assertFirstPlanUses("idx_hotels_name_trgm",
+				() -> hotelRepo.findAll(HotelSpecs.filter(name, null, null, null, null), PageRequest.of(0, 10)),
+				"%" + name + "%", 0, 10);
+
+		String city = hotelText("lower(city)");
+		assertFirstPlanUses("idx_hotels_city_trgm",
+				() -> hotelRepo.findAll(HotelSpecs.filter(null, city, null, null, null), PageRequest.of(0, 10)),
+				"%" + city + "%", 0, 10);
+
+		// One country holds ~1% of the hotels -> its first page is found sooner by scanning, its count is not
+		String country = hotelText("lower(country)");
+		List<String> statements = statementsOf(
+				() -> hotelRepo.findAll(HotelSpecs.filter(null, null, country, null, null), PageRequest.of(0, 10)));
+		assertPlanUses("idx_hotels_country_trgm", statements.get(1), "%" + country + "%");
+	}
+
+	// Runs the repository call, then EXPLAINs the first statement it sent, params bound in placeholder order
+	private void assertFirstPlanUses(String index, Runnable call, Object... params) {
+		assertPlanUses(index, statementsOf(call).get(0), params);
+	}
+
+	private void assertPlanUses(String index, String sql, Object... params) {
+		String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, params));
+		assertTrue(plan.contains(index), () -> "Expected " + index + " for\n" + sql + "\nin plan:\n" + plan);
+	}
+
+	private List<String> statementsOf(Runnable call) {
+		Statements.SEEN.get().clear();
+		call.run();
+		return List.copyOf(Statements.SEEN.get());
+	}
+
+	private UUID seeded(String key) {
+		return jdbcTemplate.queryForObject("SELECT md5(?)::uuid", UUID.class, key);
+	}
+
+	private String hotelText(String column) {
+		return jdbcTemplate.queryForObject("SELECT " + column + " FROM hotels WHERE id = ?", String.class, hotelId);
+	}
+
+	private static String word(String seed) {
+		return String.format(WORD, seed);
+	}
+
+	// SQL Hibernate prepares on the test thread, in order
+	public static class Statements implements StatementInspector {
+		static final ThreadLocal<List<String>> SEEN = ThreadLocal.withInitial(ArrayList::new);
+
+		@Override
+		public String inspect(String sql) {
+			SEEN.get().add(sql);
+			return sql;
+		}
+	}
+
+}
@@ -0,0 +1,274 @@
+package com.mostafa.hotel.search;
+
+import com.mostafa.hotel.dto.hotel.CreateHotelDTO;
+import com.mostafa.hotel.dto.hotel.UpdateHotelDTO;
+import com.mostafa.hotel.dto.room.CreateRoomDTO;
+import com.mostafa.hotel.dto.room.RoomResponseDTO;
+import com.mostafa.hotel.dto.room.UpdateRoomDTO;
+import com.mostafa.hotel.enums.RoomType;
+import com.mostafa.hotel.repository.RoomRepo;
+import com.mostafa.hotel.service.HotelService;
+import com.mostafa.hotel.service.RoomService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+/*
+ * Not @Transactional: index updates only happen after a commit, so these tests commit for real
+ * and delete their hotel (with its rooms) afterwards.
+ */
+@SpringBootTest(properties = {
+		"catalog.search.lucene.enabled=true",
+		"catalog.search.lucene.path=target/catalog-index-test"
+})
+class CatalogIndexTests {
+
+	private static final PageRequest CHEAPEST_FIRST = PageRequest.of(0, 10, Sort.by("pricePerNight"));
+	private static final Path INDEX_PATH = Path.of("target/catalog-index-test");
+
+	@Autowired
+	private CatalogIndex catalogIndex;
+
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private RoomService roomService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@MockitoSpyBean
+	private RoomRepo roomRepo;
+
+	private String city;
+	private UUID hotelId;
+
+	@BeforeEach
+	void setUp() {
+		catalogIndex.rebuild();
+
+		city = "City-" + UUID.randomUUID().toString().substring(0, 8);
+		hotelId = hotelService.createHotel(new CreateHotelDTO(
+				"catalog-" + UUID.randomUUID() + "@test.com", "Catalog Hotel", null,
+				"Street 1", city, "Egypt", null, null, null)).id();
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (hotelId != null) {
+			hotelService.deleteHotel(hotelId);
+		}
+	}
+
+	@Test
+	void rebuildIsTimedAndReportsProgress() {
+		assertTrue(catalogIndex.isReady());
+		assertTrue(meterRegistry.get("catalog.index.rebuild").timer().count() >= 1);
+		assertTrue(meterRegistry.get("catalog.index.documents").gauge().value() >= 1);
+	}
+
+	@Test
+	void committedChangesAreSearchableRightAway() {
+		UUID cheap = createRoom("101", 80, true);
+		UUID dear = createRoom("102", 150, false);
+
+		assertEquals(List.of(cheap, dear), roomIdsInCity(city));
+
+		// Applied once the surrounding transaction commits: price change re-orders, amenity filter sees the new value
+		new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+				roomService.updateRoom(cheap, new UpdateRoomDTO(null, null, null, BigDecimal.valueOf(200), null, null,
+						false, null, null, null, null, null, null, null, null, null)));
+		assertEquals(List.of(dear, cheap), roomIdsInCity(city));
+		assertEquals(0, hits(CatalogQuery.rooms().equal("city", city).equal("hasWifi", true)).total());
+
+		roomService.deleteRoom(dear);
+		assertEquals(List.of(cheap), roomIdsInCity(city));
+	}
+
+	@Test
+	void hotelCityChangeIsCopiedToItsRoomsAndHotelDeleteRemovesEverything() {
+		UUID room = createRoom("201", 90, true);
+		String newCity = city + "-moved";
+
+		hotelService.updateHotel(hotelId, new UpdateHotelDTO(null, null, null, newCity, null, null, null, null));
+		assertEquals(List.of(), roomIdsInCity(city));
+		assertEquals(List.of(room), roomIdsInCity(newCity.toUpperCase()));
+
+		hotelService.deleteHotel(hotelId);
+		hotelId = null;
+		assertEquals(List.of(), roomIdsInCity(newCity));
+		assertEquals(0, hits(CatalogQuery.hotels().contains("city", newCity)).total());
+	}
+
+	@Test
+	void rolledBackChangesNeverReachTheIndex() {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			createRoom("301", 90, true);
+			status.setRollbackOnly();
+		});
+
+		assertEquals(List.of(), roomIdsInCity(city));
+	}
+
+	@Test
+	void serviceSearchIsAnsweredFromTheIndexWithFilters() {
+		createRoom("401", 80, true);
+		UUID match = createRoom("402", 120, true);
+		createRoom("403", 160, true);
+
+		Slice<RoomResponseDTO> page = roomService.getAll(
+				null, RoomType.DELUXE, BigDecimal.valueOf(100), BigDecimal.valueOf(150), null, null, null,
+				true, null, null, null, null, null, city.toLowerCase(), null, null,
+				0, 10, "pricePerNight", "ASC", false, false).slice();
+
+		assertEquals(List.of(match), page.getContent().stream().map(RoomResponseDTO::id).toList());
+		assertEquals(1, assertInstanceOf(Page.class, page).getTotalElements());
+	}
+
+	@Test
+	void facetsAreCountedOverAllHitsInTheSamePass() {
+		createRoom("501", 80, true);
+		createRoom("502", 120, false);
+		createRoom("503", 650, true);
+
+		CatalogHits hits = hits(CatalogQuery.rooms().equal("city", city)
+				.facets("roomType", "amenities", "city", "pricePerNight"));
+
+		assertEquals(3, hits.total());
+		assertEquals(Map.of("DELUXE", 3L), hits.facets().get("roomType"));
+		assertEquals(Map.of("hasWifi", 2L, "hasAirConditioning", 3L, "hasTv", 3L, "hasPrivateBathroom", 3L),
+				hits.facets().get("amenities"));
+		assertEquals(Map.of("0-100", 1L, "100-200", 1L, "500+", 1L), hits.facets().get("pricePerNight"));
+		assertEquals(3L, hits.facets().get("city").get(city));
+	}
+
+	@Test
+	void selectedRoomTypeAndCityAreCountedWithoutTheirOwnFilter() {
+		createRoom("801", 80, true);
+		roomService.createRoom(new CreateRoomDTO("802", null, null, BigDecimal.valueOf(90), 2,
+				false, false, true, false, false, true, true, RoomType.SUITE, hotelId, null));
+		String otherCity = city + "-other";
+		UUID otherHotel = hotelService.createHotel(new CreateHotelDTO(
+				"catalog-" + UUID.randomUUID() + "@test.com", "Other Hotel", null,
+				"Street 2", otherCity, "Egypt", null, null, null)).id();
+		try {
+			roomService.createRoom(new CreateRoomDTO("803", null, null, BigDecimal.valueOf(90), 2,
+					false, true, true, false, false, true, true, RoomType.DELUXE, otherHotel, null));
+
+			CatalogHits hits = hits(CatalogQuery.rooms().equal("city", city).equal("roomType", RoomType.DELUXE)
+					.facets("roomType", "amenities", "city"));
+
+			assertEquals(1, hits.total());
+			assertEquals(Map.of("DELUXE", 1L, "SUITE", 1L), hits.facets().get("roomType"));
+			assertEquals(Map.of("hasWifi", 1L, "hasAirConditioning", 1L, "hasTv", 1L, "hasPrivateBathroom", 1L),
+					hits.facets().get("amenities"));
+			assertEquals(1L, hits.facets().get("city").get(city));
+			assertEquals(1L, hits.facets().get("city").get(otherCity));
+		} finally {
+			hotelService.deleteHotel(otherHotel);
+		}
+	}
+
+	@Test
+	void failedRebuildLeavesTheLastCommittedIndexOnDisk() throws IOException {
+		UUID room = createRoom("601", 90, true);
+		catalogIndex.commit();
+		int committed = committedDocuments();
+
+		// Rooms are loaded last -> hotels and apartments are already re-added when it fails
+		doThrow(new IllegalStateException("connection lost")).when(roomRepo).findAllByIdGreaterThan(any(), any());
+		assertThrows(RuntimeException.class, catalogIndex::rebuild);
+		assertFalse(catalogIndex.isReady());
+
+		// Neither the scheduled commit nor shutdown may persist the half-built index
+		catalogIndex.commit();
+		assertEquals(committed, committedDocuments());
+
+		roomService.deleteRoom(room);
+		catalogIndex.commit();
+		assertEquals(committed - 1, committedDocuments());
+	}
+
+	@Test
+	void changesCommittedDuringARebuildDoNotWaitForIt() {
+		UUID room = createRoom("701", 90, true);
+
+		// The update commits while the rebuild holds the index -> it must return without waiting for it.
+		// The rebuild then loads no rooms at all, so only the queued change can put this one back.
+		doAnswer(invocation -> {
+			CompletableFuture.runAsync(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+							roomService.updateRoom(room, new UpdateRoomDTO(null, null, null, BigDecimal.valueOf(300),
+									null, null, null, null, null, null, null, null, null, null, null, null))))
+					.get(10, TimeUnit.SECONDS);
+			return new SliceImpl<>(List.of());
+		}).when(roomRepo).findAllByIdGreaterThan(any(), any());
+		catalogIndex.rebuild();
+
+		assertEquals(List.of(room), hits(CatalogQuery.rooms().equal("city", city)
+				.between("pricePerNight", 300, 300)).ids());
+	}
+
+	@Test
+	void unsupportedSortFallsBackToJpa() {
+		assertTrue(catalogIndex.search(CatalogQuery.rooms(), PageRequest.of(0, 10, Sort.by("description"))).isEmpty());
+	}
+
+	private UUID createRoom(String roomNumber, int price, boolean hasWifi) {
+		return roomService.createRoom(new CreateRoomDTO(roomNumber, null, null, BigDecimal.valueOf(price), 2,
+				hasWifi, true, true, false, false, true, true, RoomType.DELUXE, hotelId, null)).id();
+	}
+
+	private int committedDocuments() {
+		try (Directory directory = FSDirectory.open(INDEX_PATH); DirectoryReader reader = DirectoryReader.open(directory)) {
+			return reader.numDocs();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private List<UUID> roomIdsInCity(String city) {
+		return hits(CatalogQuery.rooms().equal("city", city)).ids();
+	}
+
+	private CatalogHits hits(CatalogQuery query) {
+		return catalogIndex.search(query, CHEAPEST_FIRST).orElseThrow();
+	}
+
+}
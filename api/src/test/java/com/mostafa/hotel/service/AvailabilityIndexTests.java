@@ -0,0 +1,164 @@
+package com.mostafa.hotel.service;
+
+import com.mostafa.hotel.TestData;
+import com.mostafa.hotel.dto.booking.BookingResponseDTO;
+import com.mostafa.hotel.dto.booking.CreateBookingDTO;
+import com.mostafa.hotel.enums.BookingType;
+import com.mostafa.hotel.enums.UserRole;
+import com.mostafa.hotel.global.CustomResponseException;
+import com.mostafa.hotel.model.Hotel;
+import com.mostafa.hotel.model.Room;
+import com.mostafa.hotel.model.RoomAvailability;
+import com.mostafa.hotel.model.User;
+import com.mostafa.hotel.repository.RoomAvailabilityRepo;
+import com.mostafa.hotel.repository.UserRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Not @Transactional: the index is only updated after a commit, so bookings are committed for real
+ * and removed afterwards.
+ */
+@SpringBootTest
+@Import(TestData.class)
+class AvailabilityIndexTests {
+
+	@Autowired
+	private AvailabilityIndex availabilityIndex;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private RoomService roomService;
+
+	@Autowired
+	private RoomAvailabilityRepo roomAvailabilityRepo;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TestData testData;
+
+	private Hotel hotel;
+	private Room room;
+	private List<User> guests;
+	private LocalDate checkIn;
+	private LocalDate checkOut;
+
+	@BeforeEach
+	void setUp() {
+		hotel = testData.hotel();
+		room = testData.room(hotel, "501");
+		guests = List.of(testData.user(UserRole.USER), testData.user(UserRole.USER), testData.user(UserRole.USER));
+		checkIn = LocalDate.now().plusDays(20);
+		checkOut = checkIn.plusDays(3);
+	}
+
+	@AfterEach
+	void tearDown() {
+		TestData.signOut();
+		jdbcTemplate.update("DELETE FROM room_availability WHERE room_id = ?", room.getId());
+		jdbcTemplate.update("DELETE FROM bookings WHERE room_id = ?", room.getId());
+		jdbcTemplate.update("DELETE FROM rooms WHERE id = ?", room.getId());
+		jdbcTemplate.update("DELETE FROM hotels WHERE id = ?", hotel.getId());
+		userRepo.deleteAllByIdInBatch(guests.stream().map(User::getId).toList());
+	}
+
+	@Test
+	void bookCancelAndRebookTheSameNights() {
+		BookingResponseDTO first = book(guests.get(0));
+		assertEquals(List.of(1, 2, 3), takenNights(checkIn.minusDays(1), checkOut.plusDays(1)));
+		assertEquals("10001", calendar(checkIn.minusDays(1), checkOut.plusDays(1)));
+
+		assertConflict(guests.get(1));
+
+		TestData.signIn(guests.get(0));
+		bookingService.cancelBooking(first.id());
+		assertEquals(List.of(), takenNights(checkIn, checkOut));
+
+		book(guests.get(1));
+		assertEquals(List.of(0, 1, 2), takenNights(checkIn, checkOut));
+	}
+
+	@Test
+	void bookingNeverConsultsTheIndex() {
+		book(guests.get(0));
+
+		// Cancelled behind this node's back (another node, manual fix) -> the index still has the bits set
+		jdbcTemplate.update("UPDATE bookings SET status = 'CANCELLED' WHERE room_id = ?", room.getId());
+		jdbcTemplate.update("UPDATE room_availability SET is_available = true WHERE room_id = ?", room.getId());
+		assertEquals(List.of(0, 1, 2), takenNights(checkIn, checkOut));
+
+		book(guests.get(1));
+	}
+
+	@Test
+	void calendarOutsideTheHorizonIsReadFromTheDatabase() {
+		LocalDate past = LocalDate.now().minusDays(1);
+		LocalDate beyond = LocalDate.now().plusDays(availabilityIndex.getHorizonDays());
+		assertTrue(availabilityIndex.roomTakenNights(room.getId(), past, past.plusDays(3)).isEmpty());
+		assertTrue(availabilityIndex.roomTakenNights(room.getId(), beyond.minusDays(1), beyond.plusDays(1)).isEmpty());
+
+		roomAvailabilityRepo.save(RoomAvailability.builder()
+				.room(room)
+				.date(beyond)
+				.isAvailable(false)
+				.build());
+		assertEquals("101", calendar(beyond.minusDays(1), beyond.plusDays(2)));
+	}
+
+	@Test
+	void rebuildLoadsBookingsAndBlockedNightsFromTheDatabase() {
+		book(guests.get(0));
+		jdbcTemplate.update("UPDATE bookings SET status = 'CANCELLED' WHERE room_id = ?", room.getId());
+		jdbcTemplate.update("UPDATE room_availability SET is_available = true WHERE room_id = ?", room.getId());
+		roomAvailabilityRepo.save(RoomAvailability.builder()
+				.room(room)
+				.date(checkOut.plusDays(5))
+				.isAvailable(false)
+				.build());
+		assertEquals(List.of(), takenNights(checkOut.plusDays(5), checkOut.plusDays(6)));
+
+		availabilityIndex.rebuild();
+
+		assertEquals(List.of(), takenNights(checkIn, checkOut));
+		assertEquals(List.of(1), takenNights(checkOut.plusDays(4), checkOut.plusDays(7)));
+	}
+
+	private BookingResponseDTO book(User guest) {
+		TestData.signIn(guest);
+		return bookingService.createBooking(new CreateBookingDTO(
+				checkIn, checkOut, 1, BookingType.ROOM, null, hotel.getId(), null, room.getId()));
+	}
+
+	private List<Integer> takenNights(LocalDate from, LocalDate to) {
+		return availabilityIndex.roomTakenNights(room.getId(), from, to).orElseThrow();
+	}
+
+	private String calendar(LocalDate from, LocalDate to) {
+		return roomService.getRoomCalendar(room.getId(), from, to).availability();
+	}
+
+	private void assertConflict(User guest) {
+		CustomResponseException conflict = assertThrows(CustomResponseException.class, () -> book(guest));
+		assertEquals(409, conflict.getCode());
+	}
+
+}
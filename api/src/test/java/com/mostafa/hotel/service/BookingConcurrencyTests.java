@@ -0,0 +1,157 @@
+package com.mostafa.hotel.service;
+
+import com.mostafa.hotel.TestData;
+import com.mostafa.hotel.dto.booking.CreateBookingDTO;
+import com.mostafa.hotel.enums.BookingType;
+import com.mostafa.hotel.global.CustomResponseException;
+import com.mostafa.hotel.model.Hotel;
+import com.mostafa.hotel.model.Room;
+import com.mostafa.hotel.model.User;
+import com.mostafa.hotel.repository.BookingRepo;
+import com.mostafa.hotel.repository.UserRepo;
+import com.mostafa.hotel.utils.BookingLockManager;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Import(TestData.class)
+class BookingConcurrencyTests {
+
+	private static final int REQUESTS = 200;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private BookingRepo bookingRepo;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private BookingLockManager bookingLockManager;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private Hotel hotel;
+	private Room room;
+	private List<User> users;
+
+	@BeforeEach
+	void setUp() {
+		hotel = testData.hotel();
+		room = testData.room(hotel, "201");
+		users = testData.users(REQUESTS);
+	}
+
+	@AfterEach
+	void tearDown() {
+		jdbcTemplate.update("DELETE FROM room_availability WHERE room_id = ?", room.getId());
+		jdbcTemplate.update("DELETE FROM bookings WHERE room_id = ?", room.getId());
+		jdbcTemplate.update("DELETE FROM rooms WHERE id = ?", room.getId());
+		jdbcTemplate.update("DELETE FROM hotels WHERE id = ?", hotel.getId());
+		userRepo.deleteAllByIdInBatch(users.stream().map(User::getId).toList());
+	}
+
+	@Test
+	void overlappingBookingsForOneRoomHaveExactlyOneWinner() throws Exception {
+		LocalDate checkIn = LocalDate.now().plusDays(5);
+		ExecutorService pool = Executors.newFixedThreadPool(32);
+		CountDownLatch start = new CountDownLatch(1);
+
+		List<Future<Integer>> results = new ArrayList<>();
+		for (int i = 0; i < REQUESTS; i++) {
+			User user = users.get(i);
+			// Every guest asks for a slightly different stay, but all of them overlap
+			LocalDate guestCheckIn = checkIn.plusDays(i % 3);
+			results.add(pool.submit(() -> {
+				start.await();
+				TestData.signIn(user);
+				try {
+					bookingService.createBooking(new CreateBookingDTO(
+							guestCheckIn, guestCheckIn.plusDays(3), 1, BookingType.ROOM,
+							user.getId(), hotel.getId(), null, room.getId()));
+					return 201;
+				} catch (CustomResponseException ex) {
+					return ex.getCode();
+				} finally {
+					TestData.signOut();
+				}
+			}));
+		}
+
+		start.countDown();
+		int created = 0;
+		int conflicts = 0;
+		for (Future<Integer> result : results) {
+			int status = result.get();
+			if (status == 201) created++;
+			if (status == 409) conflicts++;
+		}
+		pool.shutdown();
+
+		assertEquals(1, created);
+		assertEquals(REQUESTS - 1, conflicts);
+		assertEquals(1, bookingRepo.findRoomHistory(room.getId(), null, null, null, PageRequest.of(0, 10)).getTotalElements());
+	}
+
+	@Test
+	void queuedBookingHoldsNoConnectionWhileWaitingForTheLock() throws Exception {
+		HikariPoolMXBean connections = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+		Counter contended = meterRegistry.get("booking.lock.contended").counter();
+		double contendedBefore = contended.count();
+		User user = users.get(0);
+		LocalDate checkIn = LocalDate.now().plusDays(5);
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+
+		Future<?> queued = bookingLockManager.withLock(room.getId(), () -> {
+			Future<?> booking = pool.submit(() -> {
+				TestData.signIn(user);
+				return bookingService.createBooking(new CreateBookingDTO(
+						checkIn, checkIn.plusDays(2), 1, BookingType.ROOM, user.getId(), hotel.getId(), null, room.getId()));
+			});
+			while (contended.count() == contendedBefore) {
+				Thread.onSpinWait();
+			}
+
+			assertEquals(0, connections.getActiveConnections());
+			return booking;
+		});
+
+		queued.get();
+		pool.shutdown();
+		assertEquals(1, bookingRepo.findRoomHistory(room.getId(), null, null, null, PageRequest.of(0, 10)).getTotalElements());
+	}
+
+}
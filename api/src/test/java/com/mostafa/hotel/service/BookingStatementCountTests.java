@@ -0,0 +1,117 @@
+package com.mostafa.hotel.service;
+
+import com.mostafa.hotel.TestData;
+import com.mostafa.hotel.dto.booking.BookingResponseDTO;
+import com.mostafa.hotel.dto.booking.CreateBookingDTO;
+import com.mostafa.hotel.enums.BookingType;
+import com.mostafa.hotel.model.Hotel;
+import com.mostafa.hotel.model.Room;
+import com.mostafa.hotel.model.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+@Import(TestData.class)
+class BookingStatementCountTests {
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private Statistics statistics;
+	private Hotel hotel;
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+		hotel = testData.hotel();
+		user = testData.signedInUser();
+	}
+
+	@AfterEach
+	void tearDown() {
+		TestData.signOut();
+	}
+
+	@Test
+	void longStayTakesSameNumberOfStatementsAsOneNight() {
+		LocalDate start = LocalDate.now().plusDays(1);
+
+		long oneNight = statementsForBooking(testData.room(hotel, "101"), start, start.plusDays(1));
+		long longStay = statementsForBooking(testData.room(hotel, "102"), start.plusDays(10), start.plusDays(100));
+
+		assertEquals(oneNight, longStay);
+	}
+
+	@Test
+	void roomHistoryPageIsOneSelectPlusOneCount() {
+		Room room = testData.room(hotel, "103");
+		LocalDate start = LocalDate.now().plusDays(1);
+		for (int i = 0; i < 5; i++) {
+			bookingService.createBooking(new CreateBookingDTO(
+					start.plusDays(i * 3L), start.plusDays(i * 3L + 2), 1, BookingType.ROOM, null, hotel.getId(), null, room.getId()));
+		}
+		entityManager.flush();
+		entityManager.clear();
+		statistics.clear();
+
+		Page<BookingResponseDTO> history = bookingService.getRoomBookings(room.getId(), null, null, null, 0, 3);
+
+		assertEquals(3, history.getContent().size());
+		assertEquals(5, history.getTotalElements());
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void currentUserBookingsPageIsOneSelectPlusOneCount() {
+		LocalDate start = LocalDate.now().plusDays(1);
+		for (int i = 0; i < 4; i++) {
+			bookingService.createBooking(new CreateBookingDTO(
+					start.plusDays(i * 3L), start.plusDays(i * 3L + 2), 1, BookingType.ROOM, null, hotel.getId(), null,
+					testData.room(hotel, "20" + i).getId()));
+		}
+		entityManager.flush();
+		entityManager.clear();
+		statistics.clear();
+
+		Page<BookingResponseDTO> bookings = bookingService.getUserBookings(user.getId(), 0, 3);
+
+		assertEquals(3, bookings.getContent().size());
+		assertEquals(4, bookings.getTotalElements());
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+
+	private long statementsForBooking(Room room, LocalDate checkIn, LocalDate checkOut) {
+		entityManager.flush();
+		entityManager.clear();
+		statistics.clear();
+
+		bookingService.createBooking(new CreateBookingDTO(
+				checkIn, checkOut, 1, BookingType.ROOM, null, hotel.getId(), null, room.getId()));
+		entityManager.flush();
+
+		return statistics.getPrepareStatementCount();
+	}
+
+}
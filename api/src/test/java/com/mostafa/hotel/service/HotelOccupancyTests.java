@@ -0,0 +1,88 @@
+package com.mostafa.hotel.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mostafa.hotel.TestData;
+import com.mostafa.hotel.dto.booking.CreateBookingDTO;
+import com.mostafa.hotel.enums.ApartmentType;
+import com.mostafa.hotel.enums.BookingType;
+import com.mostafa.hotel.model.Apartment;
+import com.mostafa.hotel.model.Hotel;
+import com.mostafa.hotel.model.Room;
+import com.mostafa.hotel.repository.ApartmentRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Transactional
+@Import(TestData.class)
+class HotelOccupancyTests {
+
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private ApartmentRepo apartmentRepo;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@AfterEach
+	void tearDown() {
+		TestData.signOut();
+	}
+
+	@Test
+	void everyUnitIsOneRowWithItsBookedNights() throws Exception {
+		Hotel hotel = testData.hotel();
+		testData.signedInUser();
+
+		Room booked = testData.room(hotel, "301");
+		testData.room(hotel, "302");
+		Apartment apartment = apartmentRepo.save(Apartment.builder()
+				.apartmentNumber("A1")
+				.name("Suite")
+				.pricePerNight(BigDecimal.valueOf(300))
+				.totalCapacity(4)
+				.numberOfBedrooms(2)
+				.numberOfBathrooms(1)
+				.isAvailable(true)
+				.roomsBookableSeparately(false)
+				.apartmentType(ApartmentType.TWO_BEDROOM)
+				.hotel(hotel)
+				.build());
+
+		LocalDate from = LocalDate.now().plusDays(5);
+		bookingService.createBooking(new CreateBookingDTO(
+				from.minusDays(2), from.plusDays(2), 1, BookingType.ROOM, null, hotel.getId(), null, booked.getId()));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		hotelService.writeOccupancy(hotel.getId(), from, from.plusDays(5), out);
+		JsonNode rows = objectMapper.readTree(out.toByteArray()).path("data").path("rows");
+
+		assertEquals(3, rows.size());
+		assertEquals("301", rows.get(0).path("unitNumber").asText());
+		assertEquals("00111", rows.get(0).path("nights").asText());
+		assertEquals(2, rows.get(0).path("occupiedNights").asInt());
+		assertEquals("11111", rows.get(1).path("nights").asText());
+		assertEquals(apartment.getId().toString(), rows.get(2).path("unitId").asText());
+		assertEquals("11111", rows.get(2).path("nights").asText());
+	}
+
+}
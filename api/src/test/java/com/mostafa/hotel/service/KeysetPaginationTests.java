@@ -0,0 +1,138 @@
+package com.mostafa.hotel.service;
+
+import com.mostafa.hotel.TestData;
+import com.mostafa.hotel.dto.CursorPage;
+import com.mostafa.hotel.dto.booking.BookingResponseDTO;
+import com.mostafa.hotel.dto.booking.CreateBookingDTO;
+import com.mostafa.hotel.dto.room.RoomResponseDTO;
+import com.mostafa.hotel.enums.BookingType;
+import com.mostafa.hotel.global.CustomResponseException;
+import com.mostafa.hotel.model.Hotel;
+import com.mostafa.hotel.model.Room;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+@Import(TestData.class)
+class KeysetPaginationTests {
+
+	private static final BigDecimal BASE_PRICE = new BigDecimal("7300.00");
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private RoomService roomService;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private Statistics statistics;
+	private final Set<UUID> bookingIds = new HashSet<>();
+	private final Set<UUID> roomIds = new HashSet<>();
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+		Hotel hotel = testData.hotel();
+		testData.signedInUser();
+
+		LocalDate start = LocalDate.now().plusDays(1);
+		for (int i = 0; i < 5; i++) {
+			// Two rooms share a price -> the id tie-breaker must keep them apart
+			Room room = testData.room(hotel, "73" + i, BASE_PRICE.add(BigDecimal.valueOf(i / 2)));
+			roomIds.add(room.getId());
+
+			BookingResponseDTO booking = bookingService.createBooking(new CreateBookingDTO(
+					start.plusDays(i * 3L), start.plusDays(i * 3L + 2), 1, BookingType.ROOM, null, hotel.getId(), null, room.getId()));
+			bookingIds.add(booking.id());
+		}
+
+		entityManager.flush();
+		entityManager.clear();
+		statistics.clear();
+	}
+
+	@AfterEach
+	void tearDown() {
+		TestData.signOut();
+	}
+
+	@Test
+	void currentUserBookingsWalkEveryRowOnceWithOneSelectPerPage() {
+		List<UUID> seen = new ArrayList<>();
+		String cursor = "";
+		int pages = 0;
+
+		do {
+			CursorPage<BookingResponseDTO> page = bookingService.getCurrentUserBookingsAfter(cursor, 2);
+			page.content().forEach(b -> seen.add(b.id()));
+			cursor = page.nextCursor();
+			pages++;
+		} while (cursor != null);
+
+		assertEquals(3, pages);
+		assertEquals(bookingIds.size(), seen.size());
+		assertEquals(bookingIds, new HashSet<>(seen));
+		assertEquals(pages, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void roomsWalkInPriceOrderAcrossTies() {
+		List<RoomResponseDTO> seen = new ArrayList<>();
+		String cursor = null;
+
+		do {
+			CursorPage<RoomResponseDTO> page = roomService.getAllAfter(
+					null, null, BASE_PRICE, BASE_PRICE.add(BigDecimal.TEN), null, null, null,
+					null, null, null, null, null, null, null, null, null, cursor, 2);
+			seen.addAll(page.content());
+			cursor = page.nextCursor();
+		} while (cursor != null);
+
+		assertEquals(roomIds, new HashSet<>(seen.stream().map(RoomResponseDTO::id).toList()));
+		for (int i = 1; i < seen.size(); i++) {
+			assertTrue(seen.get(i - 1).pricePerNight().compareTo(seen.get(i).pricePerNight()) <= 0);
+		}
+	}
+
+	@Test
+	void lastPageHasNoCursor() {
+		CursorPage<BookingResponseDTO> page = bookingService.getCurrentUserBookingsAfter(null, 10);
+
+		assertEquals(5, page.content().size());
+		assertNull(page.nextCursor());
+	}
+
+	@Test
+	void garbageCursorIsBadRequest() {
+		assertThrows(CustomResponseException.class, () -> bookingService.getCurrentUserBookingsAfter("not-a-cursor", 2));
+	}
+
+}
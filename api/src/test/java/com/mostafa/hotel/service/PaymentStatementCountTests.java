@@ -0,0 +1,91 @@
+package com.mostafa.hotel.service;
+
+import com.mostafa.hotel.TestData;
+import com.mostafa.hotel.dto.booking.BookingResponseDTO;
+import com.mostafa.hotel.dto.booking.CreateBookingDTO;
+import com.mostafa.hotel.dto.payment.CreatePaymentDTO;
+import com.mostafa.hotel.dto.payment.PaymentResponseDTO;
+import com.mostafa.hotel.enums.BookingType;
+import com.mostafa.hotel.model.Hotel;
+import com.mostafa.hotel.model.Room;
+import com.mostafa.hotel.model.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+@Import(TestData.class)
+class PaymentStatementCountTests {
+
+	@Autowired
+	private PaymentService paymentService;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private Statistics statistics;
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+		Hotel hotel = testData.hotel();
+		user = testData.signedInUser();
+
+		LocalDate start = LocalDate.now().plusDays(1);
+		for (int i = 0; i < 4; i++) {
+			Room room = testData.room(hotel, "40" + i);
+			BookingResponseDTO booking = bookingService.createBooking(new CreateBookingDTO(
+					start.plusDays(i * 3L), start.plusDays(i * 3L + 2), 1, BookingType.ROOM, null, hotel.getId(), null, room.getId()));
+			paymentService.createPayment(new CreatePaymentDTO(booking.id(), BigDecimal.valueOf(150), null));
+		}
+
+		entityManager.flush();
+		entityManager.clear();
+		statistics.clear();
+	}
+
+	@AfterEach
+	void tearDown() {
+		TestData.signOut();
+	}
+
+	@Test
+	void userPaymentsPageIsOneSelectPlusOneCount() {
+		Page<PaymentResponseDTO> payments = paymentService.getUserPayments(user.getId(), 0, 3);
+
+		assertEquals(3, payments.getContent().size());
+		assertEquals(4, payments.getTotalElements());
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void allPaymentsPageIsOneSelectPlusOneCount() {
+		Page<PaymentResponseDTO> payments = paymentService.getAllPayments(0, 3);
+
+		assertEquals(3, payments.getContent().size());
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+
+}
@@ -0,0 +1,109 @@
+package com.mostafa.hotel.service;
+
+import com.mostafa.hotel.TestData;
+import com.mostafa.hotel.config.AuthPrincipal;
+import com.mostafa.hotel.config.JwtHelper;
+import com.mostafa.hotel.dto.user.UpdateUserDTO;
+import com.mostafa.hotel.enums.UserRole;
+import com.mostafa.hotel.model.User;
+import io.jsonwebtoken.Claims;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.annotation.Transactional;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+@Import(TestData.class)
+class PrincipalCacheTests {
+
+	@Autowired
+	private CustomUserDetailsService userDetailsService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private JwtHelper jwtHelper;
+
+	@Autowired
+	private AuthService authService;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private Statistics statistics;
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+		user = testData.user(UserRole.USER);
+		entityManager.flush();
+		statistics.clear();
+	}
+
+	@Test
+	void principalIsLoadedOncePerTtl() {
+		User first = (User) userDetailsService.loadUserByUsername(user.getEmail());
+		User second = (User) userDetailsService.loadUserByUsername(user.getEmail());
+
+		assertSame(first, second);
+		assertEquals(1, statistics.getQueryExecutionCount());
+	}
+
+	@Test
+	void updateAndDeleteEvictThePrincipal() {
+		userDetailsService.loadUserByUsername(user.getEmail());
+
+		userService.updateUser(user.getId(), new UpdateUserDTO("After", null, null, null));
+		entityManager.flush();
+		entityManager.clear();
+		assertEquals("After", ((User) userDetailsService.loadUserByUsername(user.getEmail())).getFirstName());
+
+		userService.deleteByUserId(user.getId());
+		entityManager.flush();
+		assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername(user.getEmail()));
+	}
+
+	@Test
+	void tokenIsValidatedFromOneParse() {
+		String token = jwtHelper.generateToken(user);
+
+		Claims claims = jwtHelper.parseClaims(token);
+
+		assertEquals(user.getEmail(), claims.getSubject());
+		assertTrue(jwtHelper.isTokenValid(claims, user));
+	}
+
+	@Test
+	void statefulLogoutLeavesTheUsersOtherTokensAlone() {
+		Claims claims = jwtHelper.parseClaims(jwtHelper.generateToken(AuthPrincipal.claimsOf(user), user));
+
+		TestData.signIn(user);
+		authService.logout();
+		TestData.signOut();
+
+		entityManager.flush();
+		entityManager.refresh(user);
+		assertEquals(0, user.getTokenVersion());
+		assertTrue(jwtHelper.isTokenValid(claims, user));
+	}
+
+}
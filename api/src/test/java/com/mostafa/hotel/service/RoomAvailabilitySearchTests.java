@@ -0,0 +1,110 @@
+package com.mostafa.hotel.service;
+
+import com.mostafa.hotel.TestData;
+import com.mostafa.hotel.dto.booking.CreateBookingDTO;
+import com.mostafa.hotel.dto.room.RoomResponseDTO;
+import com.mostafa.hotel.enums.BookingType;
+import com.mostafa.hotel.global.CustomResponseException;
+import com.mostafa.hotel.model.Hotel;
+import com.mostafa.hotel.model.Room;
+import com.mostafa.hotel.model.RoomAvailability;
+import com.mostafa.hotel.repository.RoomAvailabilityRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Transactional
+@Import(TestData.class)
+class RoomAvailabilitySearchTests {
+
+	@Autowired
+	private RoomService roomService;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private AvailabilityIndex availabilityIndex;
+
+	@Autowired
+	private RoomAvailabilityRepo roomAvailabilityRepo;
+
+	private Hotel hotel;
+	private Room booked;
+	private Room blocked;
+	private LocalDate start;
+
+	@BeforeEach
+	void setUp() {
+		hotel = testData.hotel();
+		testData.signedInUser();
+
+		start = LocalDate.now().plusDays(10);
+		booked = testData.room(hotel, "201");
+		blocked = testData.room(hotel, "202");
+		testData.room(hotel, "203");
+
+		bookingService.createBooking(new CreateBookingDTO(
+				start, start.plusDays(3), 1, BookingType.ROOM, null, hotel.getId(), null, booked.getId()));
+		roomAvailabilityRepo.save(RoomAvailability.builder()
+				.room(blocked)
+				.date(start.plusDays(5))
+				.isAvailable(false)
+				.build());
+	}
+
+	@AfterEach
+	void tearDown() {
+		TestData.signOut();
+	}
+
+	@Test
+	void overlappingBookingsAndBlockedNightsAreExcluded() {
+		assertEquals(List.of("203"), search(start.plusDays(1), start.plusDays(6)));
+		assertEquals(List.of("201", "203"), search(start.plusDays(4), start.plusDays(6)));
+		assertEquals(List.of("201", "202", "203"), search(start.plusDays(3), start.plusDays(5)));
+		assertEquals(List.of("201", "202", "203"), search(null, null));
+	}
+
+	@Test
+	void invalidRangeIsRejected() {
+		assertThrows(CustomResponseException.class, () -> search(start.plusDays(2), start));
+		assertThrows(CustomResponseException.class, () -> search(start, null));
+	}
+
+	@Test
+	void calendarMarksBookedAndBlockedNights() {
+		// Calendars read the in-memory index, which only hears about commits -> load this test's rows into it
+		availabilityIndex.rebuild();
+
+		assertEquals("0001111", roomService.getRoomCalendar(booked.getId(), start, start.plusDays(7)).availability());
+		assertEquals("1111101", roomService.getRoomCalendar(blocked.getId(), start, start.plusDays(7)).availability());
+		assertThrows(CustomResponseException.class,
+				() -> roomService.getRoomCalendar(booked.getId(), start, start.plusDays(367)));
+	}
+
+	private List<String> search(LocalDate checkIn, LocalDate checkOut) {
+		Page<RoomResponseDTO> page = roomService.getAllStandaloneRoomsWithSearchForHotel(
+				hotel.getId(), null, null, null, null, null, null, null,
+				null, null, null, null, null, null,
+				checkIn, checkOut, 0, 10, "roomNumber", "ASC");
+
+		return page.getContent().stream().map(RoomResponseDTO::roomNumber).toList();
+	}
+
+}
@@ -0,0 +1,126 @@
+package com.mostafa.hotel.service;
+
+import com.mostafa.hotel.TestData;
+import com.mostafa.hotel.dto.room.CreateRoomDTO;
+import com.mostafa.hotel.dto.room.RoomResponseDTO;
+import com.mostafa.hotel.enums.RoomType;
+import com.mostafa.hotel.model.Hotel;
+import com.mostafa.hotel.utils.CountCache;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+@Import(TestData.class)
+class RoomSearchCountTests {
+
+	private static final BigDecimal PRICE = new BigDecimal("8400.00");
+
+	@Autowired
+	private RoomService roomService;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private CountCache countCache;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private Statistics statistics;
+	private Hotel hotel;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		countCache.invalidateAll();
+
+		hotel = testData.hotel();
+		for (int i = 0; i < 5; i++) {
+			testData.room(hotel, "84" + i, PRICE);
+		}
+
+		entityManager.flush();
+		entityManager.clear();
+		statistics.clear();
+	}
+
+	@Test
+	void withoutTotalRunsNoCount() {
+		Slice<RoomResponseDTO> rooms = search(0, false);
+
+		assertFalse(rooms instanceof Page);
+		assertEquals(2, rooms.getContent().size());
+		assertTrue(rooms.hasNext());
+		assertEquals(1, statistics.getQueryExecutionCount());
+
+		Slice<RoomResponseDTO> last = search(2, false);
+		assertEquals(1, last.getContent().size());
+		assertFalse(last.hasNext());
+	}
+
+	@Test
+	void totalIsCountedOnceAcrossPages() {
+		Page<RoomResponseDTO> first = assertInstanceOf(Page.class, search(0, true));
+		assertEquals(5, first.getTotalElements());
+		assertEquals(3, first.getTotalPages());
+		assertEquals(2, statistics.getQueryExecutionCount());
+
+		Page<RoomResponseDTO> second = assertInstanceOf(Page.class, search(1, true));
+		assertEquals(5, second.getTotalElements());
+		assertEquals(3, statistics.getQueryExecutionCount());
+	}
+
+	@Test
+	void roomWritesEvictCachedTotals() {
+		assertEquals(5, assertInstanceOf(Page.class, search(0, true)).getTotalElements());
+
+		roomService.createRoom(new CreateRoomDTO("845", "New room", null, PRICE, 2,
+				null, null, null, null, null, null, true, RoomType.STANDARD, hotel.getId(), null));
+
+		assertEquals(6, assertInstanceOf(Page.class, search(0, true)).getTotalElements());
+	}
+
+	@Test
+	void staleTotalNeverHidesTheNextPage() {
+		assertEquals(5, assertInstanceOf(Page.class, search(0, true)).getTotalElements());
+
+		// Written behind the service's back (another instance, a booking) -> cached total is now low
+		testData.room(hotel, "845", PRICE);
+		testData.room(hotel, "846", PRICE);
+
+		Page<RoomResponseDTO> third = assertInstanceOf(Page.class, search(2, true));
+		assertEquals(2, third.getContent().size());
+		assertTrue(third.hasNext());
+		assertEquals(4, third.getTotalPages());
+
+		Page<RoomResponseDTO> last = assertInstanceOf(Page.class, search(3, true));
+		assertEquals(1, last.getContent().size());
+		assertFalse(last.hasNext());
+		assertEquals(7, last.getTotalElements());
+	}
+
+	private Slice<RoomResponseDTO> search(int page, boolean withTotal) {
+		return roomService.getAll(
+				null, null, PRICE, PRICE, null, null, null, null, null, null, null, null, null, null, null, null,
+				page, 2, "pricePerNight", "ASC", withTotal, false).slice();
+	}
+
+}
@@ -0,0 +1,170 @@
+package com.mostafa.hotel.service;
+
+import com.mostafa.hotel.TestData;
+import com.mostafa.hotel.dto.FacetedSlice;
+import com.mostafa.hotel.dto.hotel.HotelResponseDTO;
+import com.mostafa.hotel.dto.room.RoomResponseDTO;
+import com.mostafa.hotel.enums.ApartmentType;
+import com.mostafa.hotel.enums.RoomType;
+import com.mostafa.hotel.model.Apartment;
+import com.mostafa.hotel.model.Hotel;
+import com.mostafa.hotel.model.Room;
+import com.mostafa.hotel.repository.ApartmentRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+@Import(TestData.class)
+class SearchSpecificationTests {
+
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private RoomService roomService;
+
+	@Autowired
+	private ApartmentRepo apartmentRepo;
+
+	@Autowired
+	private TestData testData;
+
+	private String marker;
+	private Apartment apartment;
+
+	@BeforeEach
+	void setUp() {
+		marker = UUID.randomUUID().toString().substring(0, 8);
+		Hotel active = testData.hotel("Nile " + marker + " Palace", "Cairo", true);
+		testData.hotel("Nile " + marker + " Inn", "Cairo", false);
+
+		apartment = apartmentRepo.save(Apartment.builder()
+				.apartmentNumber("A1")
+				.name("Suite")
+				.pricePerNight(BigDecimal.valueOf(300))
+				.totalCapacity(4)
+				.numberOfBedrooms(2)
+				.numberOfBathrooms(1)
+				.isAvailable(true)
+				.roomsBookableSeparately(true)
+				.apartmentType(ApartmentType.TWO_BEDROOM)
+				.hotel(active)
+				.build());
+		testData.room(active, apartment, "101", true);
+		testData.room(active, apartment, "102", false);
+		testData.room(active, null, "103", true);
+	}
+
+	@Test
+	void hotelSearchAppliesOnlySuppliedFilters() {
+		Page<HotelResponseDTO> byName = hotelService.searchHotels(
+				marker.toUpperCase(), null, null, null, null, 0, 10, "name", "ASC");
+		assertEquals(2, byName.getTotalElements());
+
+		Page<HotelResponseDTO> activeOnly = hotelService.searchHotels(
+				marker, "cAiRo", "", null, true, 0, 10, "name", "ASC");
+		assertEquals(1, activeOnly.getTotalElements());
+		assertEquals("Nile " + marker + " Palace", activeOnly.getContent().get(0).name());
+	}
+
+	@Test
+	void hotelTextSearchRanksClosestMatchFirstAndToleratesTypos() {
+		Page<HotelResponseDTO> exact = hotelService.searchHotelsByText("nile " + marker + " palace", 0, 10);
+		assertEquals("Nile " + marker + " Palace", exact.getContent().get(0).name());
+
+		Page<HotelResponseDTO> typo = hotelService.searchHotelsByText("  NILE " + marker + " PALCE ", 0, 10);
+		assertEquals("Nile " + marker + " Palace", typo.getContent().get(0).name());
+
+		Page<HotelResponseDTO> unrelated = hotelService.searchHotelsByText("zanzibar lagoon", 0, 10);
+		assertTrue(unrelated.getContent().stream().noneMatch(h -> h.name().contains(marker)));
+	}
+
+	@Test
+	void apartmentRoomsAreScopedToTheApartment() {
+		Page<RoomResponseDTO> all = roomService.getAllForApartment(apartment.getId(),
+				null, null, null, null, null, null, null, null, null, null, null, null, null,
+				0, 10, "roomNumber", "ASC");
+		assertEquals(2, all.getTotalElements());
+
+		Page<RoomResponseDTO> withWifi = roomService.getAllForApartment(apartment.getId(),
+				null, null, null, null, null, null, null, true, null, null, null, null, null,
+				0, 10, "roomNumber", "ASC");
+		assertEquals(1, withWifi.getTotalElements());
+		assertEquals("101", withWifi.getContent().get(0).roomNumber());
+	}
+
+	@Test
+	void amenityFiltersMatchSetAndClearedBitsTogether() {
+		Page<RoomResponseDTO> wifiOnly = roomService.getAllForApartment(apartment.getId(),
+				null, null, null, null, null, null, null, true, null, null, null, false, null,
+				0, 10, "roomNumber", "ASC");
+		assertEquals(1, wifiOnly.getTotalElements());
+		assertEquals("101", wifiOnly.getContent().get(0).roomNumber());
+		assertTrue(wifiOnly.getContent().get(0).hasWifi());
+
+		Page<RoomResponseDTO> noWifi = roomService.getAllForApartment(apartment.getId(),
+				null, null, null, null, null, null, null, false, null, null, null, null, null,
+				0, 10, "roomNumber", "ASC");
+		assertEquals(1, noWifi.getTotalElements());
+		assertEquals("102", noWifi.getContent().get(0).roomNumber());
+	}
+
+	@Test
+	void roomFacetsCountEveryDimensionOverTheWholeResult() {
+		String city = "Luxor " + marker;
+		Hotel hotel = testData.hotel("Facet Hotel", city, true);
+		testData.room(hotel, null, "201", true);
+		Room suite = testData.room(hotel, null, "202", false);
+		suite.setRoomType(RoomType.SUITE);
+		suite.setPricePerNight(BigDecimal.valueOf(650));
+		suite.setHasBalcony(true);
+
+		FacetedSlice<RoomResponseDTO> page = roomService.getAll(
+				null, null, null, null, null, null, null, null, null, null, null, null, null, city, null, null,
+				0, 1, "pricePerNight", "ASC", true, true);
+
+		assertEquals(1, page.slice().getContent().size());
+		assertEquals(Map.of("STANDARD", 1L, "SUITE", 1L), page.facets().get("roomType"));
+		assertEquals(Map.of("hasWifi", 1L, "hasBalcony", 1L), page.facets().get("amenities"));
+		assertEquals(Map.of("100-200", 1L, "500+", 1L), page.facets().get("pricePerNight"));
+
+		// The selected city is counted without its own filter -> other cities stay listed
+		assertEquals(2L, page.facets().get("city").get(city));
+		assertTrue(page.facets().get("city").get("Cairo") >= 3);
+
+		// Same for a selected room type: both types listed, everything else counts suites only
+		FacetedSlice<RoomResponseDTO> suites = roomService.getAll(
+				null, RoomType.SUITE, null, null, null, null, null, null, null, null, null, null, null, city, null, null,
+				0, 10, "pricePerNight", "ASC", false, true);
+		assertEquals(1, suites.slice().getContent().size());
+		assertEquals(Map.of("STANDARD", 1L, "SUITE", 1L), suites.facets().get("roomType"));
+		assertEquals(Map.of("hasBalcony", 1L), suites.facets().get("amenities"));
+		assertEquals(Map.of("500+", 1L), suites.facets().get("pricePerNight"));
+		assertEquals(1L, suites.facets().get("city").get(city));
+
+		FacetedSlice<RoomResponseDTO> withWifi = roomService.getAll(
+				null, null, null, null, null, null, null, true, null, null, null, null, null, city, null, null,
+				0, 10, "pricePerNight", "ASC", false, true);
+		assertEquals(Map.of("STANDARD", 1L), withWifi.facets().get("roomType"));
+
+		FacetedSlice<RoomResponseDTO> noFacets = roomService.getAll(
+				null, null, null, null, null, null, null, null, null, null, null, null, null, city, null, null,
+				0, 10, "pricePerNight", "ASC", true, false);
+		assertNull(noFacets.facets());
+	}
+
+}
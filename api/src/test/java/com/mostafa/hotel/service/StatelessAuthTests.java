@@ -0,0 +1,182 @@
+package com.mostafa.hotel.service;
+
+import com.mostafa.hotel.TestData;
+import com.mostafa.hotel.config.AuditorAwareImpl;
+import com.mostafa.hotel.config.AuthPrincipal;
+import com.mostafa.hotel.config.JwtAuthFilter;
+import com.mostafa.hotel.config.JwtHelper;
+import com.mostafa.hotel.enums.UserRole;
+import com.mostafa.hotel.model.User;
+import com.mostafa.hotel.repository.UserRepo;
+import com.mostafa.hotel.utils.CurrentUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Not @Transactional: revocations are read back from the users row once they commit, so the user is
+ * committed for real and deleted afterwards.
+ */
+@SpringBootTest(properties = {
+		"security.auth.stateless=true",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(TestData.class)
+class StatelessAuthTests {
+
+	@Autowired
+	private JwtAuthFilter jwtAuthFilter;
+
+	@Autowired
+	private JwtHelper jwtHelper;
+
+	@Autowired
+	private TokenVersions tokenVersions;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private CurrentUser currentUser;
+
+	@Autowired
+	private AuditorAwareImpl auditorAware;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private AuthService authService;
+
+	@Autowired
+	private CustomUserDetailsService userDetailsService;
+
+	private Statistics statistics;
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		user = testData.user(UserRole.ADMIN);
+		statistics.clear();
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+		if (user != null) {
+			userRepo.deleteById(user.getId());
+		}
+	}
+
+	@Test
+	void principalComesFromTheClaimsWithoutTouchingTheUsersTable() throws Exception {
+		String token = loginToken();
+		authenticate(token);
+
+		// Token version is cached per user for security.token-version.ttl -> later requests run no query
+		statistics.clear();
+		Authentication authentication = authenticate(token);
+
+		AuthPrincipal principal = assertInstanceOf(AuthPrincipal.class, authentication.getPrincipal());
+		assertEquals(new AuthPrincipal(user.getId(), user.getEmail(), UserRole.ADMIN, 0), principal);
+		assertEquals(List.of(new SimpleGrantedAuthority("ROLE_ADMIN")), List.copyOf(authentication.getAuthorities()));
+
+		// Services and auditing only need the id -> still no query
+		assertEquals(user.getId(), currentUser.getCurrentUser().getId());
+		assertEquals(Optional.of(user.getId().toString()), auditorAware.getCurrentAuditor());
+		assertEquals(0, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void logoutRevokesTokensAndNewLoginsAreAccepted() throws Exception {
+		String oldToken = loginToken();
+		authenticate(oldToken);
+
+		authService.logout();
+
+		assertNull(authenticate(oldToken));
+		String newToken = loginToken();
+		assertEquals(1, assertInstanceOf(AuthPrincipal.class, authenticate(newToken).getPrincipal()).tokenVersion());
+	}
+
+	@Test
+	void revocationsArePersistedForOtherInstances() {
+		String token = loginToken();
+		AuthPrincipal principal = AuthPrincipal.fromClaims(jwtHelper.parseClaims(token));
+		assertTrue(tokenVersions.isCurrent(principal.id(), principal.tokenVersion()));
+
+		tokenVersions.revoke(user.getId(), user.getEmail());
+
+		// Another node / this one after a restart: nothing in memory, the users row decides
+		assertFalse(otherInstance().isCurrent(principal.id(), principal.tokenVersion()));
+		assertTrue(otherInstance().isCurrent(principal.id(), principal.tokenVersion() + 1));
+	}
+
+	@Test
+	void deletedUsersTokensAreRejected() throws Exception {
+		String token = loginToken();
+		AuthPrincipal principal = AuthPrincipal.fromClaims(jwtHelper.parseClaims(token));
+
+		userService.deleteByUserId(user.getId());
+		user = null;
+
+		assertNull(authenticate(token));
+		assertFalse(otherInstance().isCurrent(principal.id(), principal.tokenVersion()));
+	}
+
+	@Test
+	void tokensWithoutTheClaimsFallBackToTheUserLookup() throws Exception {
+		assertInstanceOf(User.class, authenticate(jwtHelper.generateToken(user)).getPrincipal());
+	}
+
+	private TokenVersions otherInstance() {
+		return new TokenVersions(userRepo, userDetailsService, new SimpleMeterRegistry(), Duration.ofMinutes(1), 100);
+	}
+
+	private String loginToken() {
+		User current = userRepo.findById(user.getId()).orElseThrow();
+		statistics.clear();
+		return jwtHelper.generateToken(AuthPrincipal.claimsOf(current), current);
+	}
+
+	private Authentication authenticate(String token) throws Exception {
+		SecurityContextHolder.clearContext();
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/bookings/my-bookings");
+		request.addHeader("Authorization", "Bearer " + token);
+
+		jwtAuthFilter.doFilter(request, new MockHttpServletResponse(), (req, res) -> assertNotNull(req));
+		return SecurityContextHolder.getContext().getAuthentication();
+	}
+
+}
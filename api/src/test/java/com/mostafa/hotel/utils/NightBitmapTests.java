@@ -0,0 +1,55 @@
+package com.mostafa.hotel.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NightBitmapTests {
+
+	@Test
+	void twoYearHorizonFitsInTwelveWords() {
+		assertEquals(12, NightBitmap.wordsFor(730));
+		assertEquals(11, NightBitmap.wordsFor(704));
+		assertEquals(12, NightBitmap.wordsFor(705));
+	}
+
+	@Test
+	void rangesAreHalfOpenAcrossWordBoundaries() {
+		NightBitmap bitmap = new NightBitmap(730);
+		bitmap.set(60, 130);
+
+		assertFalse(bitmap.anySet(0, 60));
+		assertTrue(bitmap.anySet(59, 61));
+		assertTrue(bitmap.anySet(64, 128));
+		assertTrue(bitmap.anySet(129, 200));
+		assertFalse(bitmap.anySet(130, 730));
+		assertTrue(bitmap.isSet(63) && bitmap.isSet(64) && bitmap.isSet(127) && bitmap.isSet(128));
+	}
+
+	@Test
+	void clearOnlyFreesTheGivenNights() {
+		NightBitmap bitmap = new NightBitmap(730);
+		bitmap.set(0, 730);
+		bitmap.clear(100, 200);
+
+		assertFalse(bitmap.anySet(100, 200));
+		assertTrue(bitmap.isSet(99));
+		assertTrue(bitmap.isSet(200));
+		assertTrue(bitmap.isSet(729));
+	}
+
+	@Test
+	void outOfRangeNightsAreIgnored() {
+		NightBitmap bitmap = new NightBitmap(730);
+		bitmap.set(-5, 2);
+		bitmap.set(728, 1000);
+
+		assertTrue(bitmap.anySet(-10, 1));
+		assertTrue(bitmap.anySet(729, 2000));
+		assertFalse(bitmap.anySet(2, 728));
+		assertFalse(bitmap.anySet(800, 900));
+	}
+
+}